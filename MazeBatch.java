@@ -0,0 +1,130 @@
+import java.io.*;
+import java.lang.reflect.Method;
+import java.util.*;
+import java.util.concurrent.*;
+
+import mazeSolver.*;
+
+
+/**
+ * Batch mode of MazeTester: runs every job of a job file in one JVM, so that start-up and
+ * JIT warm-up are paid once, and prints a table of their results in the order of the file.
+ *
+ * Jobs computing in memory share a pool of one thread per worker. Jobs blocking on files
+ * (file: mazes and the external-memory solver) run apart, on virtual threads when the JVM has
+ * them and on a larger pool of platform threads otherwise, so that waiting jobs do not hold a
+ * worker. Each worker thread reuses its solvers from one job to the next.
+ */
+class MazeBatch {
+
+	/**
+	 * Jobs blocking on files allowed at once, per worker
+	 */
+	static final int IO_JOBS_PER_WORKER = 4;
+
+	/**
+	 * Run a job file.
+	 * @param jobFile File of job lines, see MazeJob.
+	 * @param workers Number of jobs computing at once.
+	 * @param out Where the result table goes.
+	 * @return Number of jobs that could not run or whose solution is not valid.
+	 */
+	static int run(File jobFile, int workers, PrintStream out) throws IOException, InterruptedException {
+		List<MazeJob> jobs = new ArrayList<MazeJob>();
+		List<String> ids = new ArrayList<String>();
+		List<String> errors = new ArrayList<String>();
+		try (BufferedReader in = new BufferedReader(new FileReader(jobFile))) {
+			String line;
+			int lineNum = 0;
+			while ((line = in.readLine()) != null) {
+				lineNum++;
+				if (MazeJob.isBlank(line))
+					continue;
+				try {
+					jobs.add(MazeJob.parse(line, lineNum));
+					errors.add(null);
+				} catch (IllegalArgumentException e) {
+					jobs.add(null);
+					errors.add(e.getMessage());
+				}
+				ids.add(Integer.toString(lineNum));
+			}
+		}
+
+		// solvers of each worker thread, kept warm between its jobs
+		ThreadLocal<Map<String, MazeSolver>> solvers = ThreadLocal.withInitial(HashMap::new);
+		ExecutorService cpuPool = Executors.newFixedThreadPool(workers);
+		ExecutorService ioPool = newVirtualThreadExecutor();
+		if (ioPool == null)
+			ioPool = Executors.newFixedThreadPool(workers * IO_JOBS_PER_WORKER);
+		Semaphore ioPermits = new Semaphore(workers * IO_JOBS_PER_WORKER);
+
+		long start = System.nanoTime();
+		List<Future<MazeJob.Result>> results = new ArrayList<Future<MazeJob.Result>>();
+		for (int i = 0; i < jobs.size(); i++) {
+			MazeJob job = jobs.get(i);
+			String id = ids.get(i);
+			if (job == null) {
+				MazeJob.Result result = new MazeJob.Result();
+				result.id = id;
+				result.status = errors.get(i);
+				results.add(CompletableFuture.completedFuture(result));
+			} else if (job.blocksOnIO()) {
+				results.add(ioPool.submit(() -> {
+					ioPermits.acquire();
+					try {
+						return job.run(id, null);
+					} finally {
+						ioPermits.release();
+					}
+				}));
+			} else {
+				results.add(cpuPool.submit(() -> job.run(id, solvers.get())));
+			}
+		}
+
+		int failed = 0;
+		out.printf("%-6s %-7s %-10s %-10s %11s %-6s %-6s %-6s %10s %10s %10s  %s%n", "job", "type", "generator",
+				"solver", "size", "perfect", "solved", "valid", "explored", "gen ms", "solve ms", "status");
+		for (int i = 0; i < results.size(); i++) {
+			MazeJob job = jobs.get(i);
+			MazeJob.Result result;
+			try {
+				result = results.get(i).get();
+			} catch (ExecutionException e) {
+				result = new MazeJob.Result();
+				result.id = ids.get(i);
+				result.status = e.getCause().toString();
+			}
+			// a perfect maze given to a solver must come back with a valid solution
+			if (!result.status.equals("ok") || (result.isPerfect && !job.spec.solverName.equals("none") && !result.isValid))
+				failed++;
+			out.printf("%-6s %-7s %-10s %-10s %11s %-7b %-6b %-6b %10d %10.1f %10.1f  %s%n", result.id,
+					job == null ? "-" : job.spec.type, job == null ? "-" : job.spec.generatorName,
+					job == null ? "-" : job.spec.solverName, job == null ? "-" : job.spec.rowNum + "x" + job.spec.colNum,
+					result.isPerfect, result.isSolved, result.isValid, result.cellsExplored,
+					result.generateNanos / 1e6, result.solveNanos / 1e6, result.status);
+		}
+		cpuPool.shutdown();
+		ioPool.shutdown();
+		out.printf("%d jobs, %d failed, %.1f s on %d workers%n", results.size(), failed,
+				(System.nanoTime() - start) / 1e9, workers);
+		return failed;
+	} // end of run()
+
+
+	/**
+	 * Executors.newVirtualThreadPerTaskExecutor() is looked up by reflection, so that the
+	 * tester still builds and runs on JVMs without virtual threads.
+	 * @return Executor starting a virtual thread per task, null if the JVM has none.
+	 */
+	static ExecutorService newVirtualThreadExecutor() {
+		try {
+			Method method = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+			return (ExecutorService) method.invoke(null);
+		} catch (ReflectiveOperationException e) {
+			return null;
+		}
+	} // end of newVirtualThreadExecutor()
+
+} // end of class MazeBatch
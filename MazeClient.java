@@ -0,0 +1,51 @@
+import java.io.*;
+import java.net.StandardProtocolFamily;
+import java.net.UnixDomainSocketAddress;
+import java.nio.channels.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+
+
+/**
+ * Local client of the MazeTester daemon: sends the job lines of stdin to the daemon socket
+ * and prints the result line of each, e.g.
+ *
+ * echo "normal recurBack recurBack 50 50 0 0 49 49 1" | java MazeClient /tmp/maze.sock
+ */
+class MazeClient {
+
+	public static void main(String[] args) throws IOException {
+		if (args.length != 1) {
+			System.err.println("MazeClient: [socket path] < job lines");
+			System.exit(1);
+		}
+
+		try (SocketChannel channel = SocketChannel.open(StandardProtocolFamily.UNIX)) {
+			channel.connect(UnixDomainSocketAddress.of(Paths.get(args[0])));
+			BufferedReader replies = new BufferedReader(Channels.newReader(channel, StandardCharsets.UTF_8));
+			PrintWriter jobs = new PrintWriter(Channels.newWriter(channel, StandardCharsets.UTF_8));
+			BufferedReader in = new BufferedReader(new InputStreamReader(System.in, StandardCharsets.UTF_8));
+
+			String line;
+			while ((line = in.readLine()) != null) {
+				if (MazeJob.isBlank(line))
+					continue;
+				jobs.println(line);
+				jobs.flush();
+				String command = line.trim();
+				// the daemon does not answer these
+				if (command.equals("quit") || command.equals("shutdown"))
+					return;
+				String reply = replies.readLine();
+				if (reply == null) {
+					System.err.println("Daemon closed the connection.");
+					System.exit(1);
+				}
+				System.out.println(reply);
+			}
+			jobs.println("quit");
+			jobs.flush();
+		}
+	} // end of main()
+
+} // end of class MazeClient
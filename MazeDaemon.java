@@ -0,0 +1,111 @@
+import java.io.*;
+import java.net.StandardProtocolFamily;
+import java.net.UnixDomainSocketAddress;
+import java.nio.channels.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.*;
+import java.util.concurrent.*;
+
+import mazeSolver.*;
+
+
+/**
+ * Resident mode of MazeTester: jobs arrive one per line, see MazeJob, and each gets a result
+ * line back, see MazeJob.Result.line(), so that a pipeline pays JVM start-up and JIT warm-up
+ * once instead of once per maze.
+ *
+ * Jobs are read from stdin and answered on stdout, or read from the connections of a local
+ * Unix-domain socket, each connection answered in order on a worker thread. Every thread
+ * keeps its solvers, and with them their scratch arenas, warm between jobs. Blank and #
+ * lines get no answer, "quit" ends the connection and "shutdown" stops the daemon.
+ */
+class MazeDaemon {
+
+	/**
+	 * Answer the jobs of one input until it ends or asks to quit.
+	 * @param in Job lines.
+	 * @param out Result lines, flushed after each one.
+	 * @param solvers Solvers kept warm between jobs.
+	 * @return True if the daemon was asked to shut down.
+	 */
+	static boolean serve(BufferedReader in, PrintWriter out, Map<String, MazeSolver> solvers) throws IOException {
+		String line;
+		int jobNum = 0;
+		int lineNum = 0;
+		while ((line = in.readLine()) != null) {
+			lineNum++;
+			if (MazeJob.isBlank(line))
+				continue;
+			String command = line.trim();
+			if (command.equals("quit"))
+				return false;
+			if (command.equals("shutdown"))
+				return true;
+
+			String id = Integer.toString(++jobNum);
+			MazeJob.Result result;
+			try {
+				result = MazeJob.parse(line, lineNum).run(id, solvers);
+			} catch (IllegalArgumentException e) {
+				result = new MazeJob.Result();
+				result.id = id;
+				result.status = e.getMessage();
+			}
+			out.println(result.line());
+			out.flush();
+		}
+		return false;
+	} // end of serve()
+
+
+	/**
+	 * Answer the jobs of stdin on stdout.
+	 */
+	static void runStdin() throws IOException {
+		BufferedReader in = new BufferedReader(new InputStreamReader(System.in, StandardCharsets.UTF_8));
+		PrintWriter out = new PrintWriter(new OutputStreamWriter(System.out, StandardCharsets.UTF_8));
+		serve(in, out, new HashMap<String, MazeSolver>());
+	} // end of runStdin()
+
+
+	/**
+	 * Answer the jobs of every connection to a Unix-domain socket, until asked to shut down.
+	 * @param socketPath Path of the socket, replaced if it exists.
+	 * @param workers Number of connections served at once.
+	 */
+	static void runSocket(Path socketPath, int workers) throws IOException, InterruptedException {
+		Files.deleteIfExists(socketPath);
+		ServerSocketChannel server = ServerSocketChannel.open(StandardProtocolFamily.UNIX);
+		server.bind(UnixDomainSocketAddress.of(socketPath));
+
+		ThreadLocal<Map<String, MazeSolver>> solvers = ThreadLocal.withInitial(HashMap::new);
+		ExecutorService pool = Executors.newFixedThreadPool(workers);
+		try {
+			while (true) {
+				SocketChannel client;
+				try {
+					client = server.accept();
+				} catch (ClosedChannelException e) {
+					// closed by a shutdown request
+					break;
+				}
+				pool.submit(() -> {
+					try (SocketChannel channel = client) {
+						BufferedReader in = new BufferedReader(Channels.newReader(channel, StandardCharsets.UTF_8));
+						PrintWriter out = new PrintWriter(Channels.newWriter(channel, StandardCharsets.UTF_8));
+						if (serve(in, out, solvers.get()))
+							server.close();
+					}
+					return null;
+				});
+			}
+		} finally {
+			pool.shutdown();
+			pool.awaitTermination(1, TimeUnit.MINUTES);
+			server.close();
+			Files.deleteIfExists(socketPath);
+		}
+	} // end of runSocket()
+
+} // end of class MazeDaemon
@@ -0,0 +1,220 @@
+import java.io.*;
+import java.util.*;
+
+import maze.*;
+import mazeGenerator.*;
+import mazeSolver.*;
+
+
+/**
+ * One maze to generate and solve, given on a single line of a job file or of the daemon:
+ *
+ * <type> <generator> <solver> <rows> <cols> <entR> <entC> <exitR> <exitC> <seed> [tunnels]
+ *
+ * Names are those of MazeTester input files, tunnels are groups of four numbers as there, and
+ * the seed makes the generated maze the same on every run. Lines are parsed and checked by
+ * MazeSpec, as input files are. Blank lines and lines starting with # are not jobs.
+ */
+class MazeJob {
+
+	MazeSpec spec;
+
+	/**
+	 * Outcome of a job.
+	 */
+	static class Result {
+		String id;
+		/** "ok", or why the job could not run */
+		String status = "ok";
+		boolean isPerfect;
+		boolean isSolved;
+		boolean isValid;
+		long cellsExplored;
+		long generateNanos;
+		long solveNanos;
+
+		/**
+		 * @return Result on one line of key=value fields.
+		 */
+		String line() {
+			if (!status.equals("ok"))
+				return "id=" + id + " status=error message=" + status.replace(' ', '_');
+			return String.format("id=%s status=ok perfect=%b solved=%b valid=%b explored=%d genMs=%.3f solveMs=%.3f",
+					id, isPerfect, isSolved, isValid, cellsExplored, generateNanos / 1e6, solveNanos / 1e6);
+		} // end of line()
+	} // end of class Result
+
+
+	/**
+	 * @param line Job line.
+	 * @param lineNum Number of the line, given in errors.
+	 * @return The job.
+	 * @throws IllegalArgumentException If the line is not a job, the message giving the line.
+	 */
+	static MazeJob parse(String line, int lineNum) {
+		MazeJob job = new MazeJob();
+		try {
+			job.spec = MazeSpec.parseJob(line, lineNum);
+		} catch (IOException e) {
+			throw new IllegalArgumentException(e.getMessage());
+		}
+		return job;
+	} // end of parse()
+
+
+	/**
+	 * @param line Line of a job file or of the daemon.
+	 * @return True if the line holds no job.
+	 */
+	static boolean isBlank(String line) {
+		String trimmed = line.trim();
+		return trimmed.isEmpty() || trimmed.startsWith("#");
+	} // end of isBlank()
+
+
+	/**
+	 * @return True if the job spends much of its time waiting on files rather than computing.
+	 */
+	boolean blocksOnIO() {
+		return spec.generatorName.startsWith("file:") || spec.solverName.equals("extBFS");
+	} // end of blocksOnIO()
+
+
+	/**
+	 * Generate, check and solve the maze, then validate the solution, with nothing drawn or printed.
+	 * @param id Name of the job in the result.
+	 * @param solvers Solvers to reuse by name, filled as needed, or null for new solvers.
+	 * @return Result of the job, with the failure as status if it could not run.
+	 */
+	Result run(String id, Map<String, MazeSolver> solvers) {
+		Result result = new Result();
+		result.id = id;
+		try {
+			Maze maze;
+			long start = System.nanoTime();
+			if (spec.generatorName.startsWith("file:")) {
+				// file:<path> loads a maze written by MazeFile instead of generating one
+				try (MazeFile mazeFile = new MazeFile(new File(spec.generatorName.substring("file:".length())))) {
+					maze = mazeFile.toMaze();
+				}
+			} else {
+				maze = newMaze(spec.type);
+				if (maze == null)
+					throw new IllegalArgumentException("Unknown maze type.");
+				maze.initMaze(spec.rowNum, spec.colNum, spec.entR, spec.entC, spec.exitR, spec.exitC, spec.tunnels, spec.numTunnels);
+				if (!maze.isOnEdge(spec.entR, spec.entC) || !maze.isOnEdge(spec.exitR, spec.exitC))
+					throw new IllegalArgumentException("Incorrect maze entrance or exit position.");
+				MazeGenerator mazeGen = newGenerator(spec.generatorName, spec.seed);
+				if (mazeGen == null)
+					throw new IllegalArgumentException("Unknown maze generator name.");
+				start = System.nanoTime();
+				mazeGen.generateMaze(maze);
+			}
+			result.generateNanos = System.nanoTime() - start;
+			maze.isVisu = false;
+
+			result.isPerfect = maze.isPerfect();
+			if (!result.isPerfect || spec.solverName.equals("none"))
+				return result;
+
+			MazeSolver mazeSolver = solvers != null ? solvers.get(spec.solverName) : null;
+			if (mazeSolver == null) {
+				mazeSolver = newSolver(spec.solverName);
+				if (mazeSolver == null)
+					throw new IllegalArgumentException("Unknown maze solver name.");
+				if (solvers != null)
+					solvers.put(spec.solverName, mazeSolver);
+			}
+
+			// same validation as MazeTester, without its messages
+			ValidatingFootprintSink sink = null;
+			if (mazeSolver instanceof PathSolver) {
+				maze.setFootprintMode(FootprintMode.NONE);
+			} else {
+				sink = new ValidatingFootprintSink(maze);
+				maze.footprintSink = sink;
+			}
+			start = System.nanoTime();
+			mazeSolver.solveMaze(maze);
+			result.solveNanos = System.nanoTime() - start;
+
+			result.isSolved = mazeSolver.isSolved();
+			result.cellsExplored = mazeSolver.cellsExplored();
+			if (result.isSolved) {
+				if (sink == null)
+					result.isValid = ((PathSolver) mazeSolver).solutionPath().problem(maze) == null;
+				else
+					result.isValid = sink.problem() == null;
+			}
+		} catch (IOException | RuntimeException | OutOfMemoryError | StackOverflowError e) {
+			result.status = e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName();
+		}
+		return result;
+	} // end of run()
+
+
+	/**
+	 * @return Empty maze of the type, null if unknown.
+	 */
+	static Maze newMaze(String type) {
+		switch (type) {
+		case "normal":
+			return new NormalMaze();
+		case "tunnel":
+			return new TunnelMaze();
+		case "hex":
+			return new HexMaze();
+		default:
+			return null;
+		}
+	} // end of newMaze()
+
+
+	/**
+	 * @return Generator of the name seeded with seed, null if unknown.
+	 */
+	static MazeGenerator newGenerator(String name, long seed) {
+		switch (name) {
+		case "modiPrim":
+			return new ModifiedPrimsGenerator(seed);
+		case "recurBack":
+			return new RecursiveBacktrackerGenerator(seed);
+		case "kruskal":
+			return new KruskalGenerator(seed);
+		default:
+			return null;
+		}
+	} // end of newGenerator()
+
+
+	/**
+	 * @return Solver of the name, null if unknown.
+	 */
+	static MazeSolver newSolver(String name) {
+		switch (name) {
+		case "biDir":
+			return new BiDirectionalBFSSolver();
+		case "recurBack":
+			return new RecursiveBacktrackerSolver();
+		case "parBFS":
+			return new ParallelBFSSolver();
+		case "dirOptBFS":
+			return new DirectionOptimizingBFSSolver();
+		case "corridor":
+			return new CorridorSolver();
+		case "wallFollow":
+			return new WallFollowerSolver();
+		case "pledge":
+			return new PledgeSolver();
+		case "deadEnd":
+			return new DeadEndFillingSolver();
+		case "extBFS":
+			return new ExternalMemoryBFSSolver();
+		case "sample":
+			return new SampleSolver();
+		default:
+			return null;
+		}
+	} // end of newSolver()
+
+} // end of class MazeJob
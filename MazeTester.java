@@ -1,4 +1,5 @@
 import java.io.*;
+import java.nio.file.NoSuchFileException;
 import java.util.*;
 
 import maze.*;
@@ -31,6 +32,8 @@ class MazeTester {
 	public static void usage(String progName) {
 		System.err.println(progName + ": [input fileName] <visualize maze>");
 		System.err.println("<visualize maze> = <y | n>");
+		System.err.println(progName + " -batch [job fileName] <workers>");
+		System.err.println(progName + " -daemon <socket path> <workers>");
 		System.exit(1);
 	} // end of usage()
 
@@ -39,6 +42,38 @@ class MazeTester {
 	 * @param args Two arguments which are input filename and "y/n" indicating whether to visualize the maze. 
 	 */
 	public static void main(String[] args) {
+		// batch mode, see MazeBatch
+		if (args.length > 0 && args[0].equals("-batch")) {
+			if (args.length < 2 || args.length > 3)
+				usage(progName);
+			int workers = args.length == 3 ? Integer.parseInt(args[2]) : Runtime.getRuntime().availableProcessors();
+			try {
+				int failed = MazeBatch.run(new File(args[1]), workers, outStream);
+				System.exit(failed == 0 ? 0 : 1);
+			} catch (IOException | InterruptedException e) {
+				System.err.println("Cannot run job file: " + e.getMessage());
+				System.exit(1);
+			}
+		}
+
+		// resident mode on stdin or on a socket, see MazeDaemon
+		if (args.length > 0 && args[0].equals("-daemon")) {
+			if (args.length > 3)
+				usage(progName);
+			try {
+				if (args.length == 1) {
+					MazeDaemon.runStdin();
+				} else {
+					int workers = args.length == 3 ? Integer.parseInt(args[2]) : Runtime.getRuntime().availableProcessors();
+					MazeDaemon.runSocket(new File(args[1]).toPath(), workers);
+				}
+			} catch (IOException | InterruptedException e) {
+				System.err.println("Daemon stopped: " + e.getMessage());
+				System.exit(1);
+			}
+			return;
+		}
+
 		// read command line arguments
 		if (args.length != 2) {
 			System.err.println("Incorrect number of arguments.");
@@ -62,46 +97,26 @@ class MazeTester {
 			usage(progName);
 		}
 		
-		// default values for parameters 
-		String mazeType = "normal";
-		String mazeGeneratorName = "kruskal";
-		String mazeSolverName = "recurBack";
-		int rowNum = 30;
-		int colNum = 30;
-		int entR = 0;
-		int entC = 0;
-		int exitR = 0;
-		int exitC = 1;
-		List<int[]> tunnelList = new ArrayList<int[]>();
-		
-		File fin = new File(fName);
-		
-		// read input parameter file
+		// read input parameter file, tunnels straight into an int array
+		MazeSpec spec = null;
 		try {
-			Scanner scanner = new Scanner(fin);
-			mazeType = scanner.next();
-			
-			mazeGeneratorName = scanner.next();
-			mazeSolverName = scanner.next();
-			
-			rowNum = Integer.parseInt(scanner.next());
-			colNum = Integer.parseInt(scanner.next());
-			
-			entR = Integer.parseInt(scanner.next());
-			entC = Integer.parseInt(scanner.next());
-			exitR = Integer.parseInt(scanner.next());
-			exitC = Integer.parseInt(scanner.next());
-
-			// add tunnels
-			while (scanner.hasNext()) {
-				int temp[]= {Integer.parseInt(scanner.next()), Integer.parseInt(scanner.next()), Integer.parseInt(scanner.next()), Integer.parseInt(scanner.next())};
-				tunnelList.add(temp);
-			}
-			scanner.close();
-		} catch (FileNotFoundException e) {
+			spec = MazeSpec.read(new File(fName));
+		} catch (FileNotFoundException | NoSuchFileException e) {
 			System.err.println("Input file doesn't exist.");
 			usage(progName);
+		} catch (IOException e) {
+			System.err.println("Incorrect input file. " + e.getMessage());
+			usage(progName);
 		}
+		String mazeType = spec.type;
+		String mazeGeneratorName = spec.generatorName;
+		String mazeSolverName = spec.solverName;
+		int rowNum = spec.rowNum;
+		int colNum = spec.colNum;
+		int entR = spec.entR;
+		int entC = spec.entC;
+		int exitR = spec.exitR;
+		int exitC = spec.exitC;
 
 
                 // check rowNum and colNum
@@ -129,7 +144,7 @@ class MazeTester {
 		}
 		
 		// initialise maze
-		maze.initMaze(rowNum, colNum, entR, entC, exitR, exitC, tunnelList);
+		maze.initMaze(rowNum, colNum, entR, entC, exitR, exitC, spec.tunnels, spec.numTunnels);
 
 		// check if maze entrance or exit is valid
 		if (!maze.isOnEdge(entR, entC) || !maze.isOnEdge(exitR, exitC)) {
@@ -150,14 +165,28 @@ class MazeTester {
 			mazeGen = new KruskalGenerator();
 			break;
 		default:
-			System.err.println("Unknown maze generator name.");
-			usage(progName);
+			// file:<path> loads a maze written by MazeFile instead of generating one
+			if (!mazeGeneratorName.startsWith("file:")) {
+				System.err.println("Unknown maze generator name.");
+				usage(progName);
+			}
 		}
 
-		outStream.println(mazeGen.getClass().getSimpleName() + " is generating the maze.");
+		if (mazeGen != null) {
+			outStream.println(mazeGen.getClass().getSimpleName() + " is generating the maze.");
 
-		// generate maze
-		mazeGen.generateMaze(maze);
+			// generate maze
+			mazeGen.generateMaze(maze);
+		} else {
+			String mazeFileName = mazeGeneratorName.substring("file:".length());
+			try (MazeFile mazeFile = new MazeFile(new File(mazeFileName))) {
+				maze = mazeFile.toMaze();
+			} catch (IOException e) {
+				System.err.println("Cannot load maze file: " + e.getMessage());
+				usage(progName);
+			}
+			outStream.println("The maze is loaded from " + mazeFileName + ".");
+		}
 
 		// update whether maze should be visualised
 		maze.isVisu = isVisu;
@@ -180,6 +209,27 @@ class MazeTester {
 			case "recurBack":
 				mazeSolver = new RecursiveBacktrackerSolver();
 				break;
+			case "parBFS":
+				mazeSolver = new ParallelBFSSolver();
+				break;
+			case "dirOptBFS":
+				mazeSolver = new DirectionOptimizingBFSSolver();
+				break;
+			case "corridor":
+				mazeSolver = new CorridorSolver();
+				break;
+			case "wallFollow":
+				mazeSolver = new WallFollowerSolver();
+				break;
+			case "pledge":
+				mazeSolver = new PledgeSolver();
+				break;
+			case "deadEnd":
+				mazeSolver = new DeadEndFillingSolver();
+				break;
+			case "extBFS":
+				mazeSolver = new ExternalMemoryBFSSolver();
+				break;
                         // sample solver to help you get started
                         case "sample":
                                 mazeSolver = new SampleSolver();
@@ -193,6 +243,15 @@ class MazeTester {
 			}
 
 			if (mazeSolver != null) {
+				// validate the footprints as they are drawn, unless the solver gives its route
+				// footprints are not needed at all when headless
+				ValidatingFootprintSink sink = null;
+				if (!(mazeSolver instanceof PathSolver)) {
+					sink = new ValidatingFootprintSink(maze);
+					maze.footprintSink = sink;
+				} else if (!isVisu) {
+					maze.setFootprintMode(FootprintMode.NONE);
+				}
 				mazeSolver.solveMaze(maze);
 				outStream.println(mazeSolver.getClass().getSimpleName() + " is solving the maze.");
 				// check if solver can get out of maze
@@ -200,9 +259,13 @@ class MazeTester {
 					outStream.println("The maze has been solved!");
 					// display number of cells visited for solver
 					outStream.println("Number of cells visited = " + mazeSolver.cellsExplored());
-					// show results from validation
+					// show results from validation, both ways take no pass over the maze
 					outStream.println("Validation result:");
-					boolean isValid = maze.validate();
+					boolean isValid;
+					if (mazeSolver instanceof PathSolver)
+						isValid = ((PathSolver) mazeSolver).solutionPath().validate(maze);
+					else
+						isValid = sink.validate();
 					outStream.println("The solution is " + (isValid ? "" : "not ") + "valid!");
 				} else {
 					outStream.println("Solver was failed!");
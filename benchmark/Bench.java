@@ -0,0 +1,197 @@
+package benchmark;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import maze.HexMaze;
+import maze.Maze;
+import maze.NormalMaze;
+import maze.TunnelMaze;
+import mazeGenerator.KruskalGenerator;
+import mazeGenerator.MazeGenerator;
+import mazeGenerator.ModifiedPrimsGenerator;
+import mazeGenerator.RecursiveBacktrackerGenerator;
+import mazeSolver.BiDirectionalBFSSolver;
+import mazeSolver.CorridorSolver;
+import mazeSolver.DeadEndFillingSolver;
+import mazeSolver.DirectionOptimizingBFSSolver;
+import mazeSolver.MazeSolver;
+import mazeSolver.ParallelBFSSolver;
+import mazeSolver.PledgeSolver;
+import mazeSolver.RecursiveBacktrackerSolver;
+import mazeSolver.WallFollowerSolver;
+
+/**
+ * Helpers shared by the benchmarks: mazes built from fixed seeds, so that every run and
+ * every commit measures the same mazes, and the bytes allocated by the current thread.
+ */
+class Bench
+{
+	// Seed of every generator and tunnel layout, unless a benchmark is given another one
+	final static long SEED = 20180501L;
+
+	// Names as in MazeTester
+	final static String GENERATORS[] = { "recurBack", "kruskal", "modiPrim" };
+	final static String TYPES[] = { "normal", "tunnel", "hex" };
+
+
+	static MazeGenerator generator(String name, long seed)
+	{
+		switch (name)
+		{
+		case "recurBack":
+			return new RecursiveBacktrackerGenerator(seed);
+		case "kruskal":
+			return new KruskalGenerator(seed);
+		case "modiPrim":
+			return new ModifiedPrimsGenerator(seed);
+		default:
+			throw new IllegalArgumentException("Unknown maze generator name: " + name);
+		}
+	} // end of generator()
+
+
+	static MazeSolver solver(String name)
+	{
+		switch (name)
+		{
+		case "biDir":
+			return new BiDirectionalBFSSolver();
+		case "recurBack":
+			return new RecursiveBacktrackerSolver();
+		case "parBFS":
+			return new ParallelBFSSolver();
+		case "dirOptBFS":
+			return new DirectionOptimizingBFSSolver();
+		case "corridor":
+			return new CorridorSolver();
+		case "wallFollow":
+			return new WallFollowerSolver();
+		case "pledge":
+			return new PledgeSolver();
+		case "deadEnd":
+			return new DeadEndFillingSolver();
+		default:
+			throw new IllegalArgumentException("Unknown maze solver name: " + name);
+		}
+	} // end of solver()
+
+
+	// Largest size generated in reasonable time, both slow generators growing worse than linearly
+	static int maxSize(String generator)
+	{
+		switch (generator)
+		{
+		case "kruskal":
+			return 128;
+		case "modiPrim":
+			return 256;
+		default:
+			return Integer.MAX_VALUE;
+		}
+	} // end of maxSize()
+
+
+	// ModifiedPrimsGenerator refuses tunnel mazes
+	static boolean supports(String generator, String type)
+	{
+		return !(generator.equals("modiPrim") && type.equals("tunnel"));
+	} // end of supports()
+
+
+	/**
+	 * All-wall size x size maze with the entrance and exit in opposite corners. Tunnel mazes
+	 * get one tunnel per 1024 cells, between cells drawn from the seed.
+	 */
+	static Maze emptyMaze(String type, int size, long seed)
+	{
+		Maze maze;
+		List<int[]> tunnels = new ArrayList<int[]>();
+		switch (type)
+		{
+		case "normal":
+			maze = new NormalMaze();
+			break;
+		case "tunnel":
+			maze = new TunnelMaze();
+			Random rand = new Random(seed);
+			boolean used[] = new boolean[size * size];
+			used[0] = true;
+			used[size * size - 1] = true;
+			int numTunnels = Math.min(size * size / 1024, (size * size - 2) / 2);
+			for (int i = 0; i < numTunnels; i++)
+			{
+				int ends[] = new int[4];
+				for (int e = 0; e < 2; e++)
+				{
+					int cell;
+					do
+					{
+						cell = rand.nextInt(size * size);
+					} while (used[cell]);
+					used[cell] = true;
+					ends[2 * e] = cell / size;
+					ends[2 * e + 1] = cell % size;
+				}
+				tunnels.add(ends);
+			}
+			break;
+		case "hex":
+			maze = new HexMaze();
+			break;
+		default:
+			throw new IllegalArgumentException("Unknown maze type: " + type);
+		}
+		maze.initMaze(size, size, 0, 0, size - 1, size - 1, tunnels);
+		maze.isVisu = false;
+		return maze;
+	} // end of emptyMaze()
+
+
+	/**
+	 * Perfect maze generated from the seed.
+	 */
+	static Maze perfectMaze(String type, String generator, int size, long seed)
+	{
+		Maze maze = emptyMaze(type, size, seed);
+		generator(generator, seed).generateMaze(maze);
+		return maze;
+	} // end of perfectMaze()
+
+
+	/**
+	 * Run a task with System.out muted, for the validation messages.
+	 */
+	static void quietly(Runnable task)
+	{
+		PrintStream out = System.out;
+		System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+		try
+		{
+			task.run();
+		}
+		finally
+		{
+			System.setOut(out);
+		}
+	} // end of quietly()
+
+
+	/**
+	 * @return Bytes allocated so far by the current thread, or -1 if the JVM cannot tell.
+	 */
+	static long allocatedBytes()
+	{
+		java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+		if (bean instanceof com.sun.management.ThreadMXBean)
+		{
+			return ((com.sun.management.ThreadMXBean) bean).getCurrentThreadAllocatedBytes();
+		}
+		return -1;
+	} // end of allocatedBytes()
+
+} // end of class Bench
@@ -0,0 +1,139 @@
+package benchmark;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+
+import maze.Cell;
+import maze.HexMaze;
+import maze.Maze;
+import maze.MazeCodec;
+import maze.MazeFile;
+import maze.NormalMaze;
+import mazeGenerator.MazeGenerator;
+
+/**
+ * Compares MazeCodec with gzip of the packed wall bitmap of MazeFile, in size and throughput.
+ *
+ * Usage: CodecBenchmark [size] [repeats] [generator ...]
+ * Generators are named as in MazeTester (recurBack, kruskal, modiPrim), recurBack by default
+ * as the others take much longer on large mazes. Every generator is run from a fixed seed on
+ * a size x size normal and hex maze, and the best of the repeats is reported for each timing.
+ */
+public class CodecBenchmark
+{
+	public static void main(String[] args) throws IOException
+	{
+		int size = args.length > 0 ? Integer.parseInt(args[0]) : 1000;
+		int repeats = args.length > 1 ? Integer.parseInt(args[1]) : 5;
+
+		System.out.printf("%-30s %-6s %10s %10s %10s %10s %10s %10s %10s%n", "generator", "type", "cells",
+				"raw b/c", "gzip b/c", "codec b/c", "gzip ns/c", "enc ns/c", "dec ns/c");
+
+		List<MazeGenerator> generators = new ArrayList<MazeGenerator>();
+		for (int i = 2; i < args.length; i++)
+		{
+			generators.add(Bench.generator(args[i], Bench.SEED));
+		}
+		if (generators.isEmpty())
+		{
+			generators.add(Bench.generator("recurBack", Bench.SEED));
+		}
+
+		File file = File.createTempFile("codec", ".maze");
+		try
+		{
+			for (MazeGenerator generator : generators)
+			{
+				for (boolean hex : new boolean[] { false, true })
+				{
+					Maze maze = hex ? new HexMaze() : new NormalMaze();
+					maze.initMaze(size, size, 0, 0, size - 1, size - 1, new ArrayList<int[]>());
+					maze.isVisu = false;
+					generator.generateMaze(maze);
+					long cells = (long) size * size;
+
+					// packed wall bitmap, as stored after the header of a maze file
+					MazeFile.write(maze, file);
+					byte fileBytes[] = Files.readAllBytes(file.toPath());
+					int rawBytes = fileBytes.length - MazeFile.HEADER;
+
+					long gzipTime = Long.MAX_VALUE;
+					int gzipBytes = 0;
+					long encodeTime = Long.MAX_VALUE;
+					long decodeTime = Long.MAX_VALUE;
+					byte coded[] = null;
+					for (int i = 0; i < repeats; i++)
+					{
+						long start = System.nanoTime();
+						ByteArrayOutputStream gzipped = new ByteArrayOutputStream();
+						try (GZIPOutputStream gzip = new GZIPOutputStream(gzipped))
+						{
+							gzip.write(fileBytes, MazeFile.HEADER, rawBytes);
+						}
+						gzipTime = Math.min(gzipTime, System.nanoTime() - start);
+						gzipBytes = gzipped.size();
+
+						start = System.nanoTime();
+						ByteArrayOutputStream out = new ByteArrayOutputStream();
+						MazeCodec.encode(maze, out);
+						encodeTime = Math.min(encodeTime, System.nanoTime() - start);
+						coded = out.toByteArray();
+
+						start = System.nanoTime();
+						Maze decoded = MazeCodec.decode(new ByteArrayInputStream(coded));
+						decodeTime = Math.min(decodeTime, System.nanoTime() - start);
+						if (i == 0 && !sameWalls(maze, decoded))
+						{
+							throw new IllegalStateException("Decoded maze differs from the original.");
+						}
+					}
+
+					System.out.printf("%-30s %-6s %10d %10.3f %10.3f %10.3f %10.1f %10.1f %10.1f%n",
+							generator.getClass().getSimpleName(), hex ? "hex" : "normal", cells,
+							8.0 * rawBytes / cells, 8.0 * gzipBytes / cells, 8.0 * coded.length / cells,
+							(double) gzipTime / cells, (double) encodeTime / cells, (double) decodeTime / cells);
+				}
+			}
+		}
+		finally
+		{
+			file.delete();
+		}
+	} // end of main()
+
+
+	private static boolean sameWalls(Maze a, Maze b)
+	{
+		for (int r = 0; r < a.sizeR; r++)
+		{
+			for (int c = 0; c < a.width(); c++)
+			{
+				Cell x = a.cellAt(r, c);
+				Cell y = b.cellAt(r, c);
+				if (x == null || y == null)
+				{
+					if (x != y)
+					{
+						return false;
+					}
+					continue;
+				}
+				for (int d = 0; d < Maze.NUM_DIR; d++)
+				{
+					if (x.wall[d] != null && x.wall[d].present != y.wall[d].present)
+					{
+						return false;
+					}
+				}
+			}
+		}
+		return true;
+	} // end of sameWalls()
+
+} // end of class CodecBenchmark
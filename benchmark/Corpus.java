@@ -0,0 +1,78 @@
+package benchmark;
+
+import java.io.File;
+import java.io.IOException;
+
+import maze.Maze;
+import maze.MazeFile;
+
+/**
+ * Fixed set of pre-generated mazes stored as maze files, one per maze type, generator and
+ * size, so that solver timings exclude generation and every run solves the same mazes.
+ *
+ * Files are named type-generator-size.maze and are only generated when missing. Kruskal and
+ * ModifiedPrims are left out above Bench.maxSize(), and ModifiedPrims has no tunnel mazes.
+ */
+class Corpus
+{
+	// A maze of the corpus, loaded in memory
+	static class Entry
+	{
+		String type;
+		String generator;
+		int size;
+		Maze maze;
+
+		String name()
+		{
+			return type + "-" + generator + "-" + size;
+		}
+	} // end of class Entry
+
+
+	/**
+	 * @return True if the corpus has a maze of this type, generator and size.
+	 */
+	static boolean includes(String type, String generator, int size)
+	{
+		return Bench.supports(generator, type) && size <= Bench.maxSize(generator);
+	} // end of includes()
+
+
+	/**
+	 * Load a maze of the corpus, generating its file first if missing.
+	 * @param dir Directory of the maze files.
+	 * @throws IllegalArgumentException If the corpus has no such maze, see includes().
+	 */
+	static Entry load(File dir, String type, String generator, int size) throws IOException
+	{
+		if (!includes(type, generator, size))
+		{
+			throw new IllegalArgumentException("The corpus has no " + type + " maze of " + generator + " at size "
+					+ size + ".");
+		}
+		if (!dir.isDirectory() && !dir.mkdirs())
+		{
+			throw new IOException("Cannot create corpus directory " + dir + ".");
+		}
+
+		Entry entry = new Entry();
+		entry.type = type;
+		entry.generator = generator;
+		entry.size = size;
+
+		File file = new File(dir, entry.name() + ".maze");
+		if (!file.exists())
+		{
+			Maze maze = Bench.perfectMaze(type, generator, size, Bench.SEED);
+			MazeFile.write(maze, file, Bench.SEED);
+		}
+		try (MazeFile mazeFile = new MazeFile(file))
+		{
+			entry.maze = mazeFile.toMaze();
+		}
+		entry.maze.isVisu = false;
+		return entry;
+	} // end of load()
+
+} // end of class Corpus
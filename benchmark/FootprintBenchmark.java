@@ -0,0 +1,85 @@
+package benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import maze.FootprintMode;
+import maze.Maze;
+import mazeSolver.MazeSolver;
+
+/**
+ * JMH benchmark comparing the footprint modes of Maze.drawFtPrt(Cell) on solvers drawing a
+ * footprint on every cell they explore.
+ *
+ * Usage: java -jar benchmark/target/benchmarks.jar FootprintBenchmark [JMH options]
+ * Each mode runs in a fork of its own, as a JIT profile left by one mode would slow down the
+ * next ones: drawFtPrt only inlines to nothing while its call site has seen a single kind of
+ * sink. VISUAL records the footprints but does not draw them, which would only measure
+ * StdDraw. Each solver runs on a size x size maze of RecursiveBacktrackerGenerator, picking
+ * the mode once per solve.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FootprintBenchmark
+{
+	@Param({ "NONE", "COUNT", "BITSET", "VISUAL" })
+	public FootprintMode mode;
+
+	@Param({ "biDir", "recurBack", "corridor", "deadEnd" })
+	public String solver;
+
+	@Param({ "normal", "hex" })
+	public String type;
+
+	@Param({ "1000" })
+	public int size;
+
+	private Maze maze;
+	private MazeSolver mazeSolver;
+
+
+	@Setup(Level.Trial)
+	public void setUp()
+	{
+		maze = Bench.perfectMaze(type, "recurBack", size, Bench.SEED);
+		mazeSolver = Bench.solver(solver);
+	} // end of setUp()
+
+
+	@Benchmark
+	public MazeSolver solve()
+	{
+		maze.setFootprintMode(mode);
+		maze.isVisu = false;
+		mazeSolver.solveMaze(maze);
+		return mazeSolver;
+	} // end of solve()
+
+
+	@TearDown(Level.Iteration)
+	public void checkSolved()
+	{
+		if (!mazeSolver.isSolved())
+		{
+			throw new IllegalStateException("maze not solved");
+		}
+	} // end of checkSolved()
+
+} // end of class FootprintBenchmark
@@ -0,0 +1,106 @@
+package benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import maze.Maze;
+import mazeGenerator.MazeGenerator;
+
+/**
+ * Times every maze generator on every maze type, doubling the size from minSize to maxSize.
+ *
+ * Usage: GeneratorBenchmark [minSize] [maxSize] [repeats] [budget] [generator ...]
+ * Generators are named as in MazeTester, all of them by default. Each size is generated
+ * repeats times after as many warm-up runs, always from the same seed, and the best time is
+ * reported in ns per cell with the bytes allocated per cell by the generator. A generator
+ * stops growing on a maze type once a run takes more than budget seconds or fails for lack
+ * of heap or stack, and the largest size it managed is reported as its feasible size.
+ */
+public class GeneratorBenchmark
+{
+	public static void main(String[] args)
+	{
+		int minSize = args.length > 0 ? Integer.parseInt(args[0]) : 32;
+		int maxSize = args.length > 1 ? Integer.parseInt(args[1]) : 4096;
+		int repeats = args.length > 2 ? Integer.parseInt(args[2]) : 3;
+		double budget = args.length > 3 ? Double.parseDouble(args[3]) : 10;
+
+		List<String> generators = new ArrayList<String>();
+		for (int i = 4; i < args.length; i++)
+		{
+			generators.add(args[i]);
+		}
+		if (generators.isEmpty())
+		{
+			for (String name : Bench.GENERATORS)
+			{
+				generators.add(name);
+			}
+		}
+
+		System.out.printf("%-10s %-6s %6s %12s %10s %12s%n", "generator", "type", "size", "cells", "ns/cell",
+				"bytes/cell");
+		List<String> feasible = new ArrayList<String>();
+		for (String name : generators)
+		{
+			for (String type : Bench.TYPES)
+			{
+				if (!Bench.supports(name, type))
+				{
+					continue;
+				}
+				int largest = 0;
+				String stop = "reached maxSize";
+				for (int size = minSize; size <= maxSize; size *= 2)
+				{
+					long cells = (long) size * size;
+					long best = Long.MAX_VALUE;
+					long bytes = 0;
+					boolean overBudget = false;
+					try
+					{
+						for (int i = 0; i < 2 * repeats && !overBudget; i++)
+						{
+							Maze maze = Bench.emptyMaze(type, size, Bench.SEED);
+							MazeGenerator generator = Bench.generator(name, Bench.SEED);
+							long allocated = Bench.allocatedBytes();
+							long start = System.nanoTime();
+							generator.generateMaze(maze);
+							long time = System.nanoTime() - start;
+							bytes = Bench.allocatedBytes() - allocated;
+							// the first half warms up, unless it already took too long
+							overBudget = time > budget * 1e9;
+							if (i >= repeats || overBudget)
+							{
+								best = Math.min(best, time);
+							}
+						}
+					}
+					catch (OutOfMemoryError | StackOverflowError e)
+					{
+						stop = e.getClass().getSimpleName() + " at size " + size;
+						break;
+					}
+
+					System.out.printf("%-10s %-6s %6d %12d %10.1f %12.1f%n", name, type, size, cells,
+							(double) best / cells, (double) bytes / cells);
+					largest = size;
+					if (overBudget)
+					{
+						stop = "over budget at size " + size;
+						break;
+					}
+				}
+				feasible.add(String.format("%-10s %-6s %6d  (%s)", name, type, largest, stop));
+			}
+		}
+
+		System.out.println();
+		System.out.println("Largest feasible size:");
+		for (String line : feasible)
+		{
+			System.out.println(line);
+		}
+	} // end of main()
+
+} // end of class GeneratorBenchmark
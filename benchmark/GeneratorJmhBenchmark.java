@@ -0,0 +1,92 @@
+package benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import maze.Maze;
+import mazeGenerator.MazeGenerator;
+
+/**
+ * JMH benchmark of generateMaze() for every generator on every maze type it supports, on the
+ * seeded mazes of Bench, built by the benchmark module.
+ *
+ * Usage: java -jar benchmark/target/benchmarks.jar GeneratorJmhBenchmark [JMH options]
+ * A fresh all-wall maze is built untimed before each call, since generating changes the maze.
+ * Add -prof gc for the bytes allocated per generation. GeneratorBenchmark remains the quick
+ * harness that also finds the largest feasible size.
+ *
+ * Kruskal and ModifiedPrims take minutes above Bench.maxSize(), so those sizes fail in their
+ * trial set-up without being timed. The forks get a heap for the 4096 x 4096 mazes, about
+ * 3 GB each.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx6g")
+public class GeneratorJmhBenchmark
+{
+	// generator:type pairs, ModifiedPrimsGenerator refusing tunnel mazes
+	@Param({ "recurBack:normal", "recurBack:tunnel", "recurBack:hex", "kruskal:normal", "kruskal:tunnel",
+			"kruskal:hex", "modiPrim:normal", "modiPrim:hex" })
+	public String generatorAndType;
+
+	@Param({ "32", "128", "512", "2048", "4096" })
+	public int size;
+
+	private String type;
+	private MazeGenerator generator;
+	private Maze maze;
+
+
+	@Setup(Level.Trial)
+	public void setUpTrial()
+	{
+		String parts[] = generatorAndType.split(":");
+		if (size > Bench.maxSize(parts[0]))
+		{
+			throw new IllegalArgumentException(parts[0] + " is not benchmarked above size " + Bench.maxSize(parts[0])
+					+ ".");
+		}
+		type = parts[1];
+		generator = Bench.generator(parts[0], Bench.SEED);
+	} // end of setUpTrial()
+
+
+	@Setup(Level.Invocation)
+	public void setUpInvocation()
+	{
+		maze = Bench.emptyMaze(type, size, Bench.SEED);
+	} // end of setUpInvocation()
+
+
+	@Benchmark
+	public Maze generate()
+	{
+		generator.generateMaze(maze);
+		return maze;
+	} // end of generate()
+
+
+	// drop the maze before the next one is built, two 4096 x 4096 mazes not fitting the heap
+	@TearDown(Level.Invocation)
+	public void tearDownInvocation()
+	{
+		maze = null;
+	} // end of tearDownInvocation()
+
+} // end of class GeneratorJmhBenchmark
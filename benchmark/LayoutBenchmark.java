@@ -0,0 +1,216 @@
+package benchmark;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import maze.Cell;
+import maze.CellGraph;
+import maze.Maze;
+
+/**
+ * JMH benchmark comparing the cell layouts of a maze on the two searches the solvers are
+ * built on, breadth first and depth first from the entrance over the whole maze:
+ *
+ * objects  cells through Maze.cellAt(r, c), following the Cell.neigh, Cell.wall and Cell.tunnelTo pointers
+ * cells    the contiguous cells[] by index, through Maze.passage() and Maze.tunnelIndex
+ * graph    the struct-of-arrays CellGraph, one int array of passages
+ *
+ * Usage: java -jar benchmark/target/benchmarks.jar LayoutBenchmark [JMH options]
+ * Each layout runs on size x size mazes of the recursive backtracker generator, from the
+ * fixed seed. The CellGraph is built once per maze, as a solver reusing it would, and is not
+ * timed. Searches keep their frontier and visited marks in arrays allocated once, so that
+ * only the layout differs.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LayoutBenchmark
+{
+	@Param({ "objects", "cells", "graph" })
+	public String layout;
+
+	@Param({ "bfs", "dfs" })
+	public String order;
+
+	@Param({ "normal", "tunnel", "hex" })
+	public String type;
+
+	@Param({ "1000" })
+	public int size;
+
+	private Search search;
+	private boolean depthFirst;
+	private int visited;
+
+
+	@Setup(Level.Trial)
+	public void setUp()
+	{
+		search = new Search(Bench.perfectMaze(type, "recurBack", size, Bench.SEED));
+		depthFirst = order.equals("dfs");
+	} // end of setUp()
+
+
+	@Benchmark
+	public int search()
+	{
+		switch (layout)
+		{
+		case "objects":
+			visited = search.onObjects(depthFirst);
+			break;
+		case "cells":
+			visited = search.onCells(depthFirst);
+			break;
+		default:
+			visited = search.onGraph(depthFirst);
+		}
+		return visited;
+	} // end of search()
+
+
+	// a perfect maze is reached whole, anything else is a broken layout
+	@TearDown(Level.Iteration)
+	public void checkReached()
+	{
+		if (visited != search.maze.numIndices())
+		{
+			throw new IllegalStateException(layout + " reached " + visited + " of " + search.maze.numIndices() + " cells");
+		}
+	} // end of checkReached()
+
+
+	/**
+	 * The same search on each layout. The frontier is a queue for breadth first and a stack
+	 * for depth first.
+	 */
+	static class Search
+	{
+		Maze maze;
+		CellGraph graph;
+
+		// objects layout
+		boolean objectVisited[][];
+		Cell cellFrontier[];
+
+		// cells and graph layouts
+		boolean visited[];
+		int frontier[];
+
+		Search(Maze maze)
+		{
+			this.maze = maze;
+			graph = new CellGraph(maze);
+			objectVisited = new boolean[maze.sizeR][maze.width()];
+			cellFrontier = new Cell[maze.numIndices()];
+			visited = new boolean[maze.numIndices()];
+			frontier = new int[maze.numIndices()];
+		}
+
+
+		int onObjects(boolean depthFirst)
+		{
+			for (boolean row[] : objectVisited)
+			{
+				Arrays.fill(row, false);
+			}
+			int head = 0, tail = 0, count = 0;
+			cellFrontier[tail++] = maze.entrance;
+			objectVisited[maze.entrance.r][maze.entrance.c] = true;
+			while (head < tail)
+			{
+				Cell cell = depthFirst ? cellFrontier[--tail] : cellFrontier[head++];
+				count++;
+				for (int i = 0; i < Maze.NUM_DIR; i++)
+				{
+					Cell next = cell.neigh[i];
+					if (next != null && !cell.wall[i].present && !objectVisited[next.r][next.c])
+					{
+						objectVisited[next.r][next.c] = true;
+						cellFrontier[tail++] = next;
+					}
+				}
+				Cell next = cell.tunnelTo;
+				if (next != null && !objectVisited[next.r][next.c])
+				{
+					objectVisited[next.r][next.c] = true;
+					cellFrontier[tail++] = next;
+				}
+			}
+			return count;
+		} // end of onObjects()
+
+
+		int onCells(boolean depthFirst)
+		{
+			Arrays.fill(visited, false);
+			int head = 0, tail = 0, count = 0;
+			frontier[tail++] = maze.index(maze.entrance);
+			visited[frontier[0]] = true;
+			while (head < tail)
+			{
+				int idx = depthFirst ? frontier[--tail] : frontier[head++];
+				count++;
+				for (int i = 0; i < Maze.NUM_DIR; i++)
+				{
+					int next = maze.passage(idx, i);
+					if (next >= 0 && !visited[next])
+					{
+						visited[next] = true;
+						frontier[tail++] = next;
+					}
+				}
+				int next = maze.tunnelIndex.partner(idx);
+				if (next >= 0 && !visited[next])
+				{
+					visited[next] = true;
+					frontier[tail++] = next;
+				}
+			}
+			return count;
+		} // end of onCells()
+
+
+		int onGraph(boolean depthFirst)
+		{
+			Arrays.fill(visited, false);
+			int adj[] = graph.adj;
+			int head = 0, tail = 0, count = 0;
+			frontier[tail++] = graph.entrance;
+			visited[graph.entrance] = true;
+			while (head < tail)
+			{
+				int idx = depthFirst ? frontier[--tail] : frontier[head++];
+				count++;
+				for (int j = idx * CellGraph.SLOTS; j < idx * CellGraph.SLOTS + CellGraph.SLOTS; j++)
+				{
+					int next = adj[j];
+					if (next >= 0 && !visited[next])
+					{
+						visited[next] = true;
+						frontier[tail++] = next;
+					}
+				}
+			}
+			return count;
+		} // end of onGraph()
+	} // end of class Search
+
+} // end of class LayoutBenchmark
@@ -0,0 +1,283 @@
+package benchmark;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import maze.FootprintMode;
+import maze.Maze;
+import mazeGenerator.MazeGenerator;
+import mazeSolver.MazeSolver;
+
+/**
+ * Quick benchmark subset of the hot paths, generateMaze(), solveMaze(), isPerfect() and
+ * validate(), compared with a stored baseline to catch slowdowns.
+ *
+ * Usage: RegressionGate [-update [runs]] [-threshold fraction] [-noise factor] [-baseline file]
+ * Every benchmark takes SAMPLES samples, each the mean time of as many operations as fit in
+ * SAMPLE_NANOS, and keeps their median and median absolute deviation (MAD). A benchmark
+ * regresses when its median is over the baseline median by more than threshold (0.10 by
+ * default) and also by more than noise times the sum of both deviations (3 by default), so
+ * that a noisy benchmark needs a larger slowdown to fail. The exit status is 1 if any
+ * benchmark regresses.
+ *
+ * -update writes a new baseline, benchmark/baseline.json by default, from several runs of the
+ * subset (3 by default): the median of their medians, and as deviation the larger of the MAD
+ * within a run and half the spread of the medians between runs, which is what a single run
+ * of the gate is compared against. Baselines only compare runs on the same machine and JVM.
+ */
+public class RegressionGate
+{
+	final static int SAMPLES = 7;
+	final static long SAMPLE_NANOS = 50000000L;
+
+	// Benchmark size of the linear algorithms, and of the slow generators
+	final static int SIZE = 256;
+	final static int SLOW_SIZE = 32;
+
+	private static final Pattern ENTRY = Pattern.compile(
+			"\"name\"\\s*:\\s*\"([^\"]+)\"\\s*,\\s*\"medianNanos\"\\s*:\\s*([0-9.]+)\\s*,\\s*\"madNanos\"\\s*:\\s*([0-9.]+)");
+
+	// A benchmarked operation, prepared untimed before each run
+	interface Operation
+	{
+		Runnable prepare();
+	} // end of interface Operation
+
+
+	public static void main(String[] args) throws IOException
+	{
+		boolean update = false;
+		int runs = 3;
+		double threshold = 0.10;
+		double noise = 3;
+		File baselineFile = new File("benchmark" + File.separator + "baseline.json");
+		for (int i = 0; i < args.length; i++)
+		{
+			switch (args[i])
+			{
+			case "-update":
+				update = true;
+				if (i + 1 < args.length && args[i + 1].matches("[0-9]+"))
+				{
+					runs = Integer.parseInt(args[++i]);
+				}
+				break;
+			case "-threshold":
+				threshold = Double.parseDouble(args[++i]);
+				break;
+			case "-noise":
+				noise = Double.parseDouble(args[++i]);
+				break;
+			case "-baseline":
+				baselineFile = new File(args[++i]);
+				break;
+			default:
+				System.err.println("Usage: RegressionGate [-update [runs]] [-threshold fraction] [-noise factor] [-baseline file]");
+				System.exit(2);
+			}
+		}
+
+		if (update)
+		{
+			write(baseline(runs), baselineFile);
+			System.out.println("Baseline written to " + baselineFile + ".");
+			return;
+		}
+
+		Map<String, double[]> results = run();
+		Map<String, double[]> baseline = read(baselineFile);
+		int regressions = 0;
+		System.out.printf("%-28s %12s %12s %8s  %s%n", "benchmark", "base ns", "now ns", "change", "verdict");
+		for (Map.Entry<String, double[]> result : results.entrySet())
+		{
+			double base[] = baseline.get(result.getKey());
+			double now[] = result.getValue();
+			String verdict;
+			double change = 0;
+			if (base == null)
+			{
+				verdict = "no baseline";
+			}
+			else
+			{
+				change = now[0] / base[0] - 1;
+				boolean slower = change > threshold && now[0] - base[0] > noise * (base[1] + now[1]);
+				verdict = slower ? "REGRESSION" : "ok";
+				if (slower)
+				{
+					regressions++;
+				}
+			}
+			System.out.printf("%-28s %12.0f %12.0f %+7.1f%%  %s%n", result.getKey(), base == null ? 0 : base[0], now[0],
+					100 * change, verdict);
+		}
+
+		if (regressions > 0)
+		{
+			System.out.println(regressions + " benchmark(s) regressed.");
+			System.exit(1);
+		}
+		System.out.println("No regression.");
+	} // end of main()
+
+
+	/**
+	 * @return Median and MAD in ns of every benchmark, by name.
+	 */
+	static Map<String, double[]> run()
+	{
+		Map<String, double[]> results = new LinkedHashMap<String, double[]>();
+		for (String type : Bench.TYPES)
+		{
+			for (String generator : Bench.GENERATORS)
+			{
+				if (!Bench.supports(generator, type))
+				{
+					continue;
+				}
+				int size = generator.equals("recurBack") ? SIZE : SLOW_SIZE;
+				results.put("generate/" + generator + "/" + type, measure(() -> {
+					Maze maze = Bench.emptyMaze(type, size, Bench.SEED);
+					MazeGenerator gen = Bench.generator(generator, Bench.SEED);
+					return () -> gen.generateMaze(maze);
+				}));
+			}
+
+			Maze maze = Bench.perfectMaze(type, "recurBack", SIZE, Bench.SEED);
+			for (String solver : new String[] { "biDir", "recurBack" })
+			{
+				// biDir skips the other neighbours of a cell it leaves through a tunnel, and
+				// can run out of cells before meeting on tunnel mazes
+				if (solver.equals("biDir") && type.equals("tunnel"))
+				{
+					continue;
+				}
+				MazeSolver sol = Bench.solver(solver);
+				results.put("solve/" + solver + "/" + type, measure(() -> {
+					maze.setFootprintMode(FootprintMode.NONE);
+					return () -> sol.solveMaze(maze);
+				}));
+			}
+			results.put("isPerfect/" + type, measure(() -> () -> maze.isPerfect()));
+
+			// footprints of one solve, recorded for validate()
+			Maze solved = Bench.perfectMaze(type, "recurBack", SIZE, Bench.SEED);
+			solved.footprintSink = null;
+			Bench.solver("recurBack").solveMaze(solved);
+			results.put("validate/" + type, measure(() -> () -> Bench.quietly(solved::validate)));
+		}
+		return results;
+	} // end of run()
+
+
+	/**
+	 * @return Baseline median and deviation in ns of every benchmark over several runs.
+	 */
+	static Map<String, double[]> baseline(int runs)
+	{
+		List<Map<String, double[]>> all = new ArrayList<Map<String, double[]>>();
+		for (int r = 0; r < runs; r++)
+		{
+			all.add(run());
+		}
+		Map<String, double[]> baseline = new LinkedHashMap<String, double[]>();
+		for (String name : all.get(0).keySet())
+		{
+			double medians[] = new double[runs];
+			double mads[] = new double[runs];
+			for (int r = 0; r < runs; r++)
+			{
+				medians[r] = all.get(r).get(name)[0];
+				mads[r] = all.get(r).get(name)[1];
+			}
+			double sorted[] = medians.clone();
+			Arrays.sort(sorted);
+			double spread = (sorted[runs - 1] - sorted[0]) / 2;
+			baseline.put(name, new double[] { median(medians), Math.max(median(mads), spread) });
+		}
+		return baseline;
+	} // end of baseline()
+
+
+	private static double[] measure(Operation operation)
+	{
+		double samples[] = new double[SAMPLES];
+		// the first sample warms up and is dropped
+		for (int s = -1; s < SAMPLES; s++)
+		{
+			// garbage of the previous sample is not charged to this one
+			System.gc();
+			long total = 0;
+			long count = 0;
+			while (total < SAMPLE_NANOS)
+			{
+				Runnable timed = operation.prepare();
+				long start = System.nanoTime();
+				timed.run();
+				total += System.nanoTime() - start;
+				count++;
+			}
+			if (s >= 0)
+			{
+				samples[s] = (double) total / count;
+			}
+		}
+		double median = median(samples);
+		double deviations[] = new double[SAMPLES];
+		for (int s = 0; s < SAMPLES; s++)
+		{
+			deviations[s] = Math.abs(samples[s] - median);
+		}
+		return new double[] { median, median(deviations) };
+	} // end of measure()
+
+
+	private static double median(double values[])
+	{
+		double sorted[] = values.clone();
+		Arrays.sort(sorted);
+		int n = sorted.length;
+		return n % 2 == 1 ? sorted[n / 2] : (sorted[n / 2 - 1] + sorted[n / 2]) / 2;
+	} // end of median()
+
+
+	private static void write(Map<String, double[]> results, File file) throws IOException
+	{
+		try (PrintWriter out = new PrintWriter(new FileWriter(file)))
+		{
+			out.println("[");
+			List<String> lines = new ArrayList<String>();
+			for (Map.Entry<String, double[]> result : results.entrySet())
+			{
+				lines.add(String.format("  {\"name\": \"%s\", \"medianNanos\": %.0f, \"madNanos\": %.0f}", result.getKey(),
+						result.getValue()[0], result.getValue()[1]));
+			}
+			out.println(String.join(",\n", lines));
+			out.println("]");
+		}
+	} // end of write()
+
+
+	private static Map<String, double[]> read(File file) throws IOException
+	{
+		Map<String, double[]> baseline = new LinkedHashMap<String, double[]>();
+		Matcher matcher = ENTRY.matcher(new String(Files.readAllBytes(file.toPath()), "UTF-8"));
+		while (matcher.find())
+		{
+			baseline.put(matcher.group(1),
+					new double[] { Double.parseDouble(matcher.group(2)), Double.parseDouble(matcher.group(3)) });
+		}
+		return baseline;
+	} // end of read()
+
+} // end of class RegressionGate
@@ -0,0 +1,219 @@
+package benchmark;
+
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.util.ArrayList;
+import java.util.List;
+
+import maze.FootprintMode;
+import maze.Maze;
+import mazeGenerator.MazeGenerator;
+import mazeSolver.MazeSolver;
+
+/**
+ * Sweeps maze sizes geometrically to show how every generator, solver and isPerfect() scale,
+ * and where each of them runs out of heap, stack or time.
+ *
+ * Usage: ScalingHarness [minSize] [maxSize] [factor] [budget] [output]
+ * Sizes go from minSize to maxSize, multiplied by factor each step. For every size one run is
+ * measured: wall time, peak heap, collections and collection time, and the bytes allocated by
+ * the thread. Solvers and isPerfect() run on mazes made by the recursive backtracker from a
+ * fixed seed, which is left out of their measure. A configuration stops at its first failure,
+ * OutOfMemoryError, StackOverflowError or any exception, or once a run goes over budget
+ * seconds, and the failure is kept as the status of its last row. Rows are written to
+ * output.csv and output.json, scaling.csv and scaling.json by default.
+ */
+public class ScalingHarness
+{
+	// What is measured for one size
+	static class Row
+	{
+		String kind;
+		String name;
+		String type;
+		int size;
+		String status = "ok";
+		long wallNanos;
+		long peakHeapBytes;
+		long gcCount;
+		long gcMillis;
+		long allocatedBytes;
+	} // end of class Row
+
+
+	// A configuration swept over the sizes
+	interface Run
+	{
+		// Prepare the maze of the size, untimed, and return the timed part
+		Runnable prepare(int size);
+	} // end of interface Run
+
+
+	public static void main(String[] args) throws IOException
+	{
+		int minSize = args.length > 0 ? Integer.parseInt(args[0]) : 32;
+		int maxSize = args.length > 1 ? Integer.parseInt(args[1]) : 4096;
+		double factor = args.length > 2 ? Double.parseDouble(args[2]) : 2;
+		double budget = args.length > 3 ? Double.parseDouble(args[3]) : 30;
+		String output = args.length > 4 ? args[4] : "scaling";
+		if (factor <= 1)
+		{
+			throw new IllegalArgumentException("factor must be greater than 1.");
+		}
+
+		List<Row> rows = new ArrayList<Row>();
+		for (String type : Bench.TYPES)
+		{
+			for (String generator : Bench.GENERATORS)
+			{
+				if (Bench.supports(generator, type))
+				{
+					sweep(rows, "generator", generator, type, minSize, maxSize, factor, budget, size -> {
+						Maze maze = Bench.emptyMaze(type, size, Bench.SEED);
+						MazeGenerator gen = Bench.generator(generator, Bench.SEED);
+						return () -> gen.generateMaze(maze);
+					});
+				}
+			}
+			for (String solver : new String[] { "biDir", "recurBack" })
+			{
+				sweep(rows, "solver", solver, type, minSize, maxSize, factor, budget, size -> {
+					Maze maze = Bench.perfectMaze(type, "recurBack", size, Bench.SEED);
+					maze.setFootprintMode(FootprintMode.NONE);
+					MazeSolver sol = Bench.solver(solver);
+					return () -> sol.solveMaze(maze);
+				});
+			}
+			sweep(rows, "check", "isPerfect", type, minSize, maxSize, factor, budget, size -> {
+				Maze maze = Bench.perfectMaze(type, "recurBack", size, Bench.SEED);
+				return () -> maze.isPerfect();
+			});
+		}
+
+		writeCsv(rows, output + ".csv");
+		writeJson(rows, output + ".json");
+		System.out.println("Wrote " + rows.size() + " rows to " + output + ".csv and " + output + ".json.");
+	} // end of main()
+
+
+	private static void sweep(List<Row> rows, String kind, String name, String type, int minSize, int maxSize,
+			double factor, double budget, Run run)
+	{
+		for (int size = minSize; size <= maxSize; size = Math.max(size + 1, (int) Math.round(size * factor)))
+		{
+			Row row = new Row();
+			row.kind = kind;
+			row.name = name;
+			row.type = type;
+			row.size = size;
+			rows.add(row);
+			try
+			{
+				Runnable timed = run.prepare(size);
+				measure(row, timed);
+			}
+			catch (OutOfMemoryError | StackOverflowError | RuntimeException e)
+			{
+				// whatever the run held is garbage by now
+				row.status = e.getClass().getSimpleName();
+			}
+			System.out.printf("%-9s %-10s %-6s %6d %-20s %10.1f ms %8.1f MB%n", kind, name, type, size, row.status,
+					row.wallNanos / 1e6, row.peakHeapBytes / 1e6);
+			if (!row.status.equals("ok"))
+			{
+				return;
+			}
+			if (row.wallNanos > budget * 1e9)
+			{
+				row.status = "over budget";
+				return;
+			}
+		}
+	} // end of sweep()
+
+
+	private static void measure(Row row, Runnable timed)
+	{
+		// leave only the prepared maze on the heap, so the peak belongs to this run
+		System.gc();
+		List<MemoryPoolMXBean> heapPools = new ArrayList<MemoryPoolMXBean>();
+		for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans())
+		{
+			if (pool.getType() == MemoryType.HEAP && pool.isValid())
+			{
+				heapPools.add(pool);
+				pool.resetPeakUsage();
+			}
+		}
+		long heapBefore = ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+		long gcCount = 0;
+		long gcMillis = 0;
+		for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans())
+		{
+			gcCount -= gc.getCollectionCount();
+			gcMillis -= gc.getCollectionTime();
+		}
+		long allocated = Bench.allocatedBytes();
+		long start = System.nanoTime();
+
+		timed.run();
+
+		row.wallNanos = System.nanoTime() - start;
+		row.allocatedBytes = Bench.allocatedBytes() - allocated;
+		for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans())
+		{
+			gcCount += gc.getCollectionCount();
+			gcMillis += gc.getCollectionTime();
+		}
+		row.gcCount = gcCount;
+		row.gcMillis = gcMillis;
+		// pools peak at different times, so their sum bounds the peak from above
+		long peak = 0;
+		for (MemoryPoolMXBean pool : heapPools)
+		{
+			peak += pool.getPeakUsage().getUsed();
+		}
+		row.peakHeapBytes = Math.max(peak, heapBefore);
+	} // end of measure()
+
+
+	private static void writeCsv(List<Row> rows, String fileName) throws IOException
+	{
+		try (PrintWriter out = new PrintWriter(new FileWriter(fileName)))
+		{
+			out.println("kind,name,type,size,cells,status,wallNanos,peakHeapBytes,gcCount,gcMillis,allocatedBytes");
+			for (Row row : rows)
+			{
+				out.println(row.kind + "," + row.name + "," + row.type + "," + row.size + ","
+						+ (long) row.size * row.size + "," + row.status + "," + row.wallNanos + ","
+						+ row.peakHeapBytes + "," + row.gcCount + "," + row.gcMillis + "," + row.allocatedBytes);
+			}
+		}
+	} // end of writeCsv()
+
+
+	private static void writeJson(List<Row> rows, String fileName) throws IOException
+	{
+		try (PrintWriter out = new PrintWriter(new FileWriter(fileName)))
+		{
+			out.println("[");
+			for (int i = 0; i < rows.size(); i++)
+			{
+				Row row = rows.get(i);
+				out.print("  {\"kind\": \"" + row.kind + "\", \"name\": \"" + row.name + "\", \"type\": \"" + row.type
+						+ "\", \"size\": " + row.size + ", \"cells\": " + (long) row.size * row.size
+						+ ", \"status\": \"" + row.status + "\", \"wallNanos\": " + row.wallNanos
+						+ ", \"peakHeapBytes\": " + row.peakHeapBytes + ", \"gcCount\": " + row.gcCount
+						+ ", \"gcMillis\": " + row.gcMillis + ", \"allocatedBytes\": " + row.allocatedBytes + "}");
+				out.println(i < rows.size() - 1 ? "," : "");
+			}
+			out.println("]");
+		}
+	} // end of writeJson()
+
+} // end of class ScalingHarness
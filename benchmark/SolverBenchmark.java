@@ -0,0 +1,88 @@
+package benchmark;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import maze.FootprintMode;
+import maze.Maze;
+import mazeSolver.MazeSolver;
+
+/**
+ * JMH benchmark of solvers alone on the pre-generated mazes of a Corpus.
+ *
+ * Usage: java -jar benchmark/target/benchmarks.jar SolverBenchmark [JMH options]
+ * Solvers are named as in MazeTester, e.g. -p solver=biDir,dirOptBFS. The corpus is read from
+ * the directory of the corpus.dir system property, "corpus" by default. Footprints are dropped
+ * with FootprintMode.NONE so that only the solver is timed. Each solver instance is reused on
+ * its maze, as a server would. Add -prof gc for the bytes allocated per solve.
+ *
+ * Type, generator and size combinations missing from the corpus (ModifiedPrims tunnel mazes,
+ * slow generators above Bench.maxSize()) fail in their trial set-up without being timed.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SolverBenchmark
+{
+	@Param({ "normal", "tunnel", "hex" })
+	public String type;
+
+	@Param({ "recurBack", "kruskal", "modiPrim" })
+	public String generator;
+
+	@Param({ "64", "128", "256", "1024" })
+	public int size;
+
+	@Param({ "biDir", "recurBack" })
+	public String solver;
+
+	private Maze maze;
+	private MazeSolver mazeSolver;
+
+
+	@Setup(Level.Trial)
+	public void setUp() throws IOException
+	{
+		File dir = new File(System.getProperty("corpus.dir", "corpus"));
+		maze = Corpus.load(dir, type, generator, size).maze;
+		mazeSolver = Bench.solver(solver);
+	} // end of setUp()
+
+
+	@Benchmark
+	public MazeSolver solve()
+	{
+		maze.setFootprintMode(FootprintMode.NONE);
+		mazeSolver.solveMaze(maze);
+		return mazeSolver;
+	} // end of solve()
+
+
+	@TearDown(Level.Iteration)
+	public void checkSolved()
+	{
+		if (!mazeSolver.isSolved())
+		{
+			throw new IllegalStateException("maze not solved");
+		}
+	} // end of checkSolved()
+
+} // end of class SolverBenchmark
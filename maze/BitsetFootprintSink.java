@@ -0,0 +1,52 @@
+package maze;
+
+/**
+ * Footprint sink keeping the cells with a footprint as one bit per cell.
+ *
+ * Cells are kept by maze.index().
+ */
+public class BitsetFootprintSink implements FootprintSink {
+
+	private Maze maze;
+
+	/**
+	 * bit i of word i >> 6 set if cell i has a footprint
+	 */
+	public long bits[];
+
+	/**
+	 * @param maze Maze the footprints are drawn on.
+	 */
+	public BitsetFootprintSink(Maze maze) {
+		this.maze = maze;
+		bits = new long[(maze.numIndices() + 63) >>> 6];
+	} // end of BitsetFootprintSink()
+
+	@Override
+	public void footprint(Cell cell) {
+		int i = maze.index(cell);
+		bits[i >>> 6] |= 1L << i;
+	} // end of footprint()
+
+
+	/**
+	 * @param cell Cell of the maze.
+	 * @return True if the cell has a footprint.
+	 */
+	public boolean isRecorded(Cell cell) {
+		int i = maze.index(cell);
+		return (bits[i >>> 6] & (1L << i)) != 0;
+	} // end of isRecorded()
+
+
+	/**
+	 * @return Number of distinct cells with a footprint.
+	 */
+	public int count() {
+		int count = 0;
+		for (long word : bits)
+			count += Long.bitCount(word);
+		return count;
+	} // end of count()
+
+} // end of class BitsetFootprintSink
@@ -4,7 +4,7 @@ package maze;
  * @author Youhan Xia
  * @author Jeffrey Chan
  * 
- * Object used in map matrix in maze.Maze. 
+ * Object used in cell array in maze.Maze. 
  * The solvers require that all neighbor cell objects are assigned correctly
  * and same wall object are shared by two cell objects next to the wall.
  */
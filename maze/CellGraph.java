@@ -0,0 +1,116 @@
+package maze;
+
+import java.util.Arrays;
+
+/**
+ * Primitive cell-index layout of a maze, used by solvers that work on int arrays
+ * instead of chasing Cell and Wall objects.
+ *
+ * Cells are numbered by maze.index(): r * sizeC + c for normal and tunnel mazes, and
+ * compactly for hex mazes, whose shifted rows leave no empty slots. The maze itself keeps Cell
+ * and Wall objects; adj[] holds the same passages as one struct-of-arrays int array.
+ *
+ * adj[idx * SLOTS + i] is the index of the cell reached from cell idx through the open
+ * passage on direction i, or through its tunnel for i == TUNNEL. It is -1 if there is
+ * no such passage.
+ */
+public class CellGraph {
+
+	/**
+	 * slot of adj[] used for the other end of a tunnel
+	 */
+	public final static int TUNNEL = Maze.NUM_DIR;
+
+	/**
+	 * number of adj[] entries per cell
+	 */
+	public final static int SLOTS = Maze.NUM_DIR + 1;
+
+	/**
+	 * maze this layout was built from
+	 */
+	public Maze maze;
+
+	/**
+	 * number of indices, i.e. maze.numIndices()
+	 */
+	public int numSlots;
+
+	/**
+	 * open passages of every cell, see class comment
+	 */
+	public int adj[];
+
+	/**
+	 * index of the entrance and exit cells
+	 */
+	public int entrance;
+	public int exit;
+
+	/**
+	 * Build the cell-index layout of a maze.
+	 * @param maze Maze to convert, it is not modified.
+	 */
+	public CellGraph(Maze maze) {
+		this(maze, null);
+	} // end of CellGraph()
+
+
+	/**
+	 * Build the cell-index layout of a maze, keeping only the passages between a subset of cells.
+	 * @param maze Maze to convert, it is not modified.
+	 * @param among Cell idx is in the subset if among[idx] is true, all cells are if null.
+	 */
+	public CellGraph(Maze maze, boolean among[]) {
+		this.maze = maze;
+		numSlots = maze.numIndices();
+		adj = new int[numSlots * SLOTS];
+		Arrays.fill(adj, -1);
+
+		for (int idx = 0; idx < numSlots; idx++) {
+			int base = idx * SLOTS;
+			for (int i = 0; i < Maze.NUM_DIR; i++)
+				adj[base + i] = maze.passage(idx, i);
+			adj[base + TUNNEL] = maze.tunnelIndex.partner(idx);
+			if (among != null)
+				for (int j = base; j < base + SLOTS; j++)
+					if (adj[j] >= 0 && !(among[idx] && among[adj[j]]))
+						adj[j] = -1;
+		}
+
+		entrance = index(maze.entrance);
+		exit = index(maze.exit);
+	} // end of CellGraph()
+
+
+	/**
+	 * @param cell A cell of the maze.
+	 * @return Index of the cell.
+	 */
+	public int index(Cell cell) {
+		return maze.index(cell);
+	} // end of index()
+
+
+	/**
+	 * @param idx Index of a cell.
+	 * @return The cell object of the maze with this index.
+	 */
+	public Cell cell(int idx) {
+		return maze.cellAt(idx);
+	} // end of cell()
+
+
+	/**
+	 * @param idx Index of a cell.
+	 * @return Number of open passages (tunnel included) of the cell.
+	 */
+	public int degree(int idx) {
+		int deg = 0;
+		for (int i = idx * SLOTS; i < idx * SLOTS + SLOTS; i++)
+			if (adj[i] >= 0)
+				deg++;
+		return deg;
+	} // end of degree()
+
+} // end of class CellGraph
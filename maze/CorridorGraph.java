@@ -0,0 +1,188 @@
+package maze;
+
+import java.util.Arrays;
+
+/**
+ * Maze graph with its corridors contracted.
+ *
+ * Most cells of a perfect maze have exactly two passages: they only lie in a corridor.
+ * The nodes of this graph are the other cells (junctions and dead ends) plus the entrance
+ * and the exit. Every corridor between two nodes becomes one edge, weighted by its length
+ * in steps, and the cells inside it are kept once so a path over nodes can be expanded
+ * back to cells.
+ *
+ * Edges are stored in CSR form: the edges of node u are e in [offset[u], offset[u + 1]),
+ * going to node target[e] in length[e] steps. chain[e] refers to the corridor of the edge,
+ * c >= 0 when the corridor is walked forward and ~c when it is walked backwards.
+ * The cells inside corridor c are chainCells[chainStart[c] .. chainStart[c + 1]), listed
+ * from its first node to its second.
+ */
+public class CorridorGraph {
+
+	/**
+	 * cell-index layout the graph was built from
+	 */
+	public CellGraph cells;
+
+	/**
+	 * number of nodes
+	 */
+	public int numNodes;
+
+	/**
+	 * nodeCell[u] is the cell index of node u
+	 */
+	public int nodeCell[];
+
+	/**
+	 * nodeOf[i] is the node of cell index i, -1 if the cell is inside a corridor
+	 */
+	public int nodeOf[];
+
+	/**
+	 * CSR edges, see class comment
+	 */
+	public int offset[];
+	public int target[];
+	public int length[];
+	public int chain[];
+
+	/**
+	 * corridor cells, see class comment
+	 */
+	public int chainStart[];
+	public int chainCells[];
+
+	/**
+	 * node of the entrance and exit
+	 */
+	public int entrance;
+	public int exit;
+
+	/**
+	 * Contract the corridors of a maze.
+	 * @param cells Cell-index layout of the maze.
+	 */
+	public CorridorGraph(CellGraph cells) {
+		this.cells = cells;
+		int adj[] = cells.adj;
+		int slots = CellGraph.SLOTS;
+
+		// nodes are the cells that do not have exactly two passages, and the entrance and exit
+		nodeOf = new int[cells.numSlots];
+		Arrays.fill(nodeOf, -1);
+		numNodes = 0;
+		for (int i = 0; i < cells.numSlots; i++)
+			if (cells.cell(i) != null && (cells.degree(i) != 2 || i == cells.entrance || i == cells.exit))
+				nodeOf[i] = numNodes++;
+		nodeCell = new int[numNodes];
+		for (int i = 0; i < cells.numSlots; i++)
+			if (nodeOf[i] >= 0)
+				nodeCell[nodeOf[i]] = i;
+
+		// walk every corridor once, from the first of its ends met.
+		// slotChain[u * SLOTS + s] is the corridor leaving node u through slot s (~c if walked backwards)
+		int slotChain[] = new int[numNodes * slots];
+		Arrays.fill(slotChain, Integer.MIN_VALUE);
+		int numChains = 0;
+		int chainFrom[] = new int[16];
+		int chainTo[] = new int[16];
+		chainStart = new int[17];
+		chainCells = new int[Math.max(16, cells.numSlots - numNodes)];
+		int numChainCells = 0;
+		int numEdges = 0;
+
+		for (int u = 0; u < numNodes; u++) {
+			for (int s = 0; s < slots; s++) {
+				if (adj[nodeCell[u] * slots + s] < 0 || slotChain[u * slots + s] != Integer.MIN_VALUE)
+					continue;
+
+				int cur = adj[nodeCell[u] * slots + s];
+				int in = s;
+				while (nodeOf[cur] < 0) {
+					chainCells[numChainCells++] = cur;
+					// leave through the passage that is not the one we came in by
+					int back = reverse(in);
+					int next = -1;
+					for (int j = 0; j < slots; j++)
+						if (j != back && adj[cur * slots + j] >= 0) {
+							next = adj[cur * slots + j];
+							in = j;
+							break;
+						}
+					cur = next;
+				}
+
+				if (numChains + 1 >= chainFrom.length) {
+					chainFrom = Arrays.copyOf(chainFrom, chainFrom.length * 2);
+					chainTo = Arrays.copyOf(chainTo, chainTo.length * 2);
+					chainStart = Arrays.copyOf(chainStart, chainStart.length * 2);
+				}
+				chainFrom[numChains] = u;
+				chainTo[numChains] = nodeOf[cur];
+				chainStart[numChains + 1] = numChainCells;
+				slotChain[u * slots + s] = numChains;
+				slotChain[nodeOf[cur] * slots + reverse(in)] = ~numChains;
+				numChains++;
+				numEdges += 2;
+			}
+		}
+		chainStart = Arrays.copyOf(chainStart, numChains + 1);
+		chainCells = Arrays.copyOf(chainCells, numChainCells);
+
+		// CSR over the slots of every node
+		offset = new int[numNodes + 1];
+		target = new int[numEdges];
+		length = new int[numEdges];
+		chain = new int[numEdges];
+		int e = 0;
+		for (int u = 0; u < numNodes; u++) {
+			offset[u] = e;
+			for (int s = 0; s < slots; s++) {
+				int c = slotChain[u * slots + s];
+				if (c == Integer.MIN_VALUE)
+					continue;
+				int id = c >= 0 ? c : ~c;
+				target[e] = c >= 0 ? chainTo[id] : chainFrom[id];
+				length[e] = chainStart[id + 1] - chainStart[id] + 1;
+				chain[e] = c;
+				e++;
+			}
+		}
+		offset[numNodes] = e;
+
+		entrance = nodeOf[cells.entrance];
+		exit = nodeOf[cells.exit];
+	} // end of CorridorGraph()
+
+
+	/**
+	 * Write the cells inside the corridor of an edge, in the order they are walked.
+	 * @param e Edge.
+	 * @param out Array to write to.
+	 * @param pos Position in out to start writing at.
+	 * @return Position in out after the last cell written.
+	 */
+	public int expand(int e, int out[], int pos) {
+		int c = chain[e];
+		if (c >= 0) {
+			for (int i = chainStart[c]; i < chainStart[c + 1]; i++)
+				out[pos++] = chainCells[i];
+		}
+		else {
+			c = ~c;
+			for (int i = chainStart[c + 1] - 1; i >= chainStart[c]; i--)
+				out[pos++] = chainCells[i];
+		}
+		return pos;
+	} // end of expand()
+
+
+	/*
+	 * Slot of the passage back to where a passage through slot s came from.
+	 */
+	private static int reverse(int s) {
+		return s == CellGraph.TUNNEL ? CellGraph.TUNNEL : Maze.oppoDir[s];
+	} // end of reverse()
+
+} // end of class CorridorGraph
@@ -0,0 +1,19 @@
+package maze;
+
+/**
+ * Footprint sink only counting the footprints drawn, cells drawn several times counting
+ * each time.
+ */
+public class CountingFootprintSink implements FootprintSink {
+
+	/**
+	 * number of footprints drawn
+	 */
+	public long count = 0;
+
+	@Override
+	public void footprint(Cell cell) {
+		count++;
+	} // end of footprint()
+
+} // end of class CountingFootprintSink
@@ -0,0 +1,197 @@
+package maze;
+
+import java.util.Arrays;
+
+/**
+ * Direction-optimizing BFS over the CellGraph layout of a maze.
+ *
+ * A level is expanded top-down (every frontier cell looks at its neighbours) while the
+ * frontier is small, and bottom-up (every unvisited cell looks for a neighbour in the
+ * frontier) once the passages leaving the frontier outnumber the passages left among
+ * unvisited cells by ALPHA. It goes back to top-down when the frontier shrinks below
+ * numSlots / BETA cells. Both heuristics are the ones of Beamer et al., which pay off
+ * on braided mazes and mazes with many tunnels where a level can cover a large part
+ * of the maze.
+ *
+ * After search(), visited[] is the bitset of reached cells and parent[] gives, for every
+ * reached cell, the cell it was reached from (-1 for the source).
+ */
+public class DirectionOptimizingBFS {
+
+	/**
+	 * switch to bottom-up when passages out of the frontier exceed unexplored passages / ALPHA
+	 */
+	public final static int ALPHA = 14;
+
+	/**
+	 * switch back to top-down when the frontier holds less than numSlots / BETA cells
+	 */
+	public final static int BETA = 24;
+
+	/**
+	 * graph searched
+	 */
+	public CellGraph graph;
+
+	/**
+	 * bit i of visited[i >> 6] is set if cell i has been reached
+	 */
+	public long visited[];
+
+	/**
+	 * parent[i] is the cell cell i was reached from, valid only for reached cells
+	 */
+	public int parent[];
+
+	/**
+	 * number of cells reached by the last search
+	 */
+	public int reached;
+
+	/**
+	 * number of levels expanded bottom-up by the last search
+	 */
+	public int bottomUpLevels;
+
+	// frontier as a list (top-down) and as a bitset (bottom-up)
+	private int frontier[];
+	private int next[];
+	private long frontierBits[];
+	private long nextBits[];
+
+
+	/**
+	 * @param graph Graph to search.
+	 */
+	public DirectionOptimizingBFS(CellGraph graph) {
+		this.graph = graph;
+	} // end of DirectionOptimizingBFS()
+
+
+	/**
+	 * Run a BFS from source.
+	 * @param source Index of the cell to start from.
+	 * @param target Index of the cell to stop at once reached, or -1 to reach every cell possible.
+	 * @return Number of cells reached.
+	 */
+	public int search(int source, int target) {
+		int n = graph.numSlots;
+		int words = (n + 63) >>> 6;
+		int adj[] = graph.adj;
+
+		visited = new long[words];
+		parent = new int[n];
+		frontier = new int[n];
+		next = new int[n];
+		frontierBits = new long[words];
+		nextBits = new long[words];
+		bottomUpLevels = 0;
+
+		// passages left among unvisited cells, counted from both ends
+		long unexplored = 0;
+		for (int i = 0; i < adj.length; i++)
+			if (adj[i] >= 0)
+				unexplored++;
+
+		visited[source >>> 6] |= 1L << (source & 63);
+		parent[source] = -1;
+		reached = 1;
+		frontier[0] = source;
+		int frontierSize = 1;
+		long frontierEdges = graph.degree(source);
+		unexplored -= frontierEdges;
+		boolean bottomUp = false;
+
+		while (frontierSize > 0 && (target < 0 || !isVisited(target))) {
+			if (!bottomUp && frontierEdges > unexplored / ALPHA) {
+				// list to bitset
+				Arrays.fill(frontierBits, 0);
+				for (int i = 0; i < frontierSize; i++)
+					frontierBits[frontier[i] >>> 6] |= 1L << (frontier[i] & 63);
+				bottomUp = true;
+			}
+			else if (bottomUp && frontierSize < n / BETA) {
+				// bitset to list
+				frontierSize = 0;
+				for (int w = 0; w < words; w++) {
+					long bits = frontierBits[w];
+					while (bits != 0) {
+						frontier[frontierSize++] = (w << 6) + Long.numberOfTrailingZeros(bits);
+						bits &= bits - 1;
+					}
+				}
+				bottomUp = false;
+			}
+
+			int nextSize = 0;
+			long nextEdges = 0;
+
+			if (bottomUp) {
+				bottomUpLevels++;
+				Arrays.fill(nextBits, 0);
+				for (int w = 0; w < words; w++) {
+					long unvisited = ~visited[w];
+					while (unvisited != 0) {
+						int v = (w << 6) + Long.numberOfTrailingZeros(unvisited);
+						unvisited &= unvisited - 1;
+						if (v >= n)
+							break;
+						int base = v * CellGraph.SLOTS;
+						for (int j = base; j < base + CellGraph.SLOTS; j++) {
+							int u = adj[j];
+							if (u >= 0 && (frontierBits[u >>> 6] & (1L << (u & 63))) != 0) {
+								visited[w] |= 1L << (v & 63);
+								nextBits[w] |= 1L << (v & 63);
+								parent[v] = u;
+								nextSize++;
+								int deg = graph.degree(v);
+								nextEdges += deg;
+								unexplored -= deg;
+								break;
+							}
+						}
+					}
+				}
+				long swap[] = frontierBits;
+				frontierBits = nextBits;
+				nextBits = swap;
+			}
+			else {
+				for (int i = 0; i < frontierSize; i++) {
+					int u = frontier[i];
+					int base = u * CellGraph.SLOTS;
+					for (int j = base; j < base + CellGraph.SLOTS; j++) {
+						int v = adj[j];
+						if (v >= 0 && !isVisited(v)) {
+							visited[v >>> 6] |= 1L << (v & 63);
+							parent[v] = u;
+							next[nextSize++] = v;
+							int deg = graph.degree(v);
+							nextEdges += deg;
+							unexplored -= deg;
+						}
+					}
+				}
+				int swap[] = frontier;
+				frontier = next;
+				next = swap;
+			}
+
+			reached += nextSize;
+			frontierSize = nextSize;
+			frontierEdges = nextEdges;
+		}
+
+		return reached;
+	} // end of search()
+
+
+	/**
+	 * @param idx Index of a cell.
+	 * @return True if the last search reached the cell.
+	 */
+	public boolean isVisited(int idx) {
+		return (visited[idx >>> 6] & (1L << (idx & 63))) != 0;
+	} // end of isVisited()
+
+} // end of class DirectionOptimizingBFS
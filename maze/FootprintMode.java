@@ -0,0 +1,31 @@
+package maze;
+
+/**
+ * What Maze.drawFtPrt(Cell) does with footprints, picked once per solve with
+ * Maze.setFootprintMode(). Headless runs that do not validate through footprints use
+ * NONE or COUNT, so the call inlines to nothing or to an increment in solver loops. Every
+ * mode but VISUAL switches visualisation off.
+ */
+public enum FootprintMode {
+
+	/**
+	 * footprints are dropped, drawFtPrt() returning before any sink call
+	 */
+	NONE,
+
+	/**
+	 * footprints are only counted, see CountingFootprintSink
+	 */
+	COUNT,
+
+	/**
+	 * cells with a footprint are kept in a bitset, see BitsetFootprintSink
+	 */
+	BITSET,
+
+	/**
+	 * footprints are recorded for validate() and drawn, as without any sink
+	 */
+	VISUAL
+
+} // end of enum FootprintMode
@@ -0,0 +1,21 @@
+package maze;
+
+/**
+ * Receives the footprints solvers draw through Maze.drawFtPrt(Cell), in place of the
+ * matrix of recorded cells that Maze.validate() rescans.
+ */
+public interface FootprintSink {
+
+	/**
+	 * sink dropping every footprint
+	 */
+	public final static FootprintSink NONE = cell -> {
+	};
+
+	/**
+	 * Called for every footprint drawn, a cell may be drawn several times.
+	 * @param cell Cell drawn.
+	 */
+	public void footprint(Cell cell);
+
+} // end of interface FootprintSink
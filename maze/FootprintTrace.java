@@ -0,0 +1,105 @@
+package maze;
+
+import java.util.Arrays;
+
+/**
+ * Run-length compressed record of a walk through a maze, kept instead of a visited matrix
+ * by solvers that must not use memory proportional to the size of the maze.
+ *
+ * The walk starts at (startR, startC) and is a sequence of steps, each step being a direction
+ * (0 to Maze.NUM_DIR - 1) or TUNNEL for a jump through the tunnel of the current cell.
+ * Consecutive equal steps are stored as one run: runs[i] = (count << 3) | step.
+ */
+public class FootprintTrace {
+
+	/**
+	 * step code of a jump through a tunnel
+	 */
+	public final static int TUNNEL = Maze.NUM_DIR;
+
+	// longest run stored in one int
+	private final static int MAX_RUN = (1 << 28) - 1;
+
+	public int startR;
+	public int startC;
+
+	/**
+	 * runs of equal steps, see class comment
+	 */
+	public int runs[] = new int[16];
+	public int numRuns = 0;
+
+	/**
+	 * total number of steps
+	 */
+	public long numSteps = 0;
+
+	/**
+	 * Start a new walk, forgetting the previous one.
+	 * @param r Row of the first cell.
+	 * @param c Column of the first cell.
+	 */
+	public void start(int r, int c) {
+		startR = r;
+		startC = c;
+		numRuns = 0;
+		numSteps = 0;
+	} // end of start()
+
+
+	/**
+	 * Append a step to the walk.
+	 * @param step Direction moved along, or TUNNEL.
+	 */
+	public void step(int step) {
+		numSteps++;
+		if (numRuns > 0 && (runs[numRuns - 1] & 7) == step && (runs[numRuns - 1] >>> 3) < MAX_RUN) {
+			runs[numRuns - 1] += 1 << 3;
+			return;
+		}
+		if (numRuns == runs.length)
+			runs = Arrays.copyOf(runs, runs.length * 2);
+		runs[numRuns++] = (1 << 3) | step;
+	} // end of step()
+
+
+	/**
+	 * @return Bytes used by the runs recorded.
+	 */
+	public long sizeInBytes() {
+		return 4L * numRuns;
+	} // end of sizeInBytes()
+
+
+	/**
+	 * @param type Type of the maze walked, one of Maze.NORMAL, Maze.TUNNEL or Maze.HEX.
+	 * @return The walk as a packed route, cells passed several times appearing each time.
+	 */
+	public SolutionPath toSolutionPath(int type) {
+		SolutionPath path = new SolutionPath(type);
+		path.start(startR, startC);
+		for (int i = 0; i < numRuns; i++)
+			for (int k = runs[i] >>> 3; k > 0; k--)
+				path.step(runs[i] & 7);
+		return path;
+	} // end of toSolutionPath()
+
+
+	/**
+	 * Walk the trace on a maze held in memory and draw a footprint on every cell passed,
+	 * so that Maze.validate() can check it.
+	 * @param maze Maze the walk was made on.
+	 */
+	public void replay(Maze maze) {
+		Cell cell = maze.cellAt(startR, startC);
+		maze.drawFtPrt(cell);
+		for (int i = 0; i < numRuns; i++) {
+			int step = runs[i] & 7;
+			for (int k = runs[i] >>> 3; k > 0; k--) {
+				cell = step == TUNNEL ? cell.tunnelTo : cell.neigh[step];
+				maze.drawFtPrt(cell);
+			}
+		}
+	} // end of replay()
+
+} // end of class FootprintTrace
@@ -12,6 +12,11 @@ import maze.StdDraw;
  * 
  */
 public class HexMaze extends NormalMaze {
+
+	// cell (r, c) is cells[r * sizeC + c - (r + 1) / 2], the columns of a row starting at (r + 1) / 2;
+	// index step and compact column step to the neighbour on each direction, by row parity
+	private int indexStep[][] = new int[2][NUM_DIR];
+	private int colStep[][] = new int[2][NUM_DIR];
 	
 	public HexMaze() {
 		type = HEX;
@@ -32,94 +37,88 @@ public class HexMaze extends NormalMaze {
 	} // end of isOnEdge()
 	
 	
+	@Override
+	public int neighbour(int idx, int dir) {
+		int p = idx / sizeC % 2;
+		int r = idx / sizeC + deltaR[dir];
+		int c = idx % sizeC + colStep[p][dir];
+		if (r < 0 || r >= sizeR || c < 0 || c >= sizeC)
+			return -1;
+		return idx + indexStep[p][dir];
+	} // end of neighbour()
+
+
+	@Override
+	public int width() {
+		return sizeC + (sizeR + 1) / 2;
+	} // end of width()
+
+
+	@Override
+	public int index(int r, int c) {
+		return r * sizeC + c - (r + 1) / 2;
+	} // end of index()
+
+
 	@Override
 	public void initMaze(int rs, int cs, int entR, int entC, int exitR, int exitC, List<int[]> tunnelList) {
 		// set up maze constants
 		sizeR = rs;
 		sizeC = cs;
 		sizeTunnel = tunnelList.size();
+		tunnelIndex = TunnelIndex.NONE;
 		
-		// set up map matrix
-		map = new Cell[sizeR][sizeC + (sizeR + 1) / 2];
-		for (int i = 0; i < sizeR; i++){
-			for (int j = (i + 1) / 2; j < sizeC + (i + 1) / 2; j++) {
-				if (!isIn(i, j))
-					continue;
-				Cell cell = new Cell(i, j);
-				map[i][j] = cell;
-				for (int k = 0; k < 3; k++) {
-					cell.wall[k] = new Wall();
-				}
-				for (int k = 3; k < NUM_DIR; k++) {
-					if (isIn(i + deltaR[k], j + deltaC[k])) {
-						Cell neigh = map[i + deltaR[k]][j + deltaC[k]];
-						cell.wall[k] = neigh.wall[oppoDir[k]];
-						cell.neigh[k] = neigh;
-						neigh.neigh[oppoDir[k]] = cell;
-					}
-					else
-						cell.wall[k] = new Wall();
+		// the steps between neighbours only depend on the parity of the row
+		for (int p = 0; p < 2; p++)
+			for (int k = 0; k < NUM_DIR; k++) {
+				colStep[p][k] = deltaC[k] - ((p + deltaR[k] + 1) / 2 - (p + 1) / 2);
+				indexStep[p][k] = deltaR[k] * sizeC + colStep[p][k];
+			}
+
+		// set up the cells in one array, row by row
+		cells = new Cell[sizeR * sizeC];
+		for (int idx = 0; idx < sizeR * sizeC; idx++) {
+			int i = idx / sizeC;
+			Cell cell = new Cell(i, idx % sizeC + (i + 1) / 2);
+			cells[idx] = cell;
+			for (int k = 0; k < 3; k++) {
+				cell.wall[k] = new Wall();
+			}
+			for (int k = 3; k < NUM_DIR; k++) {
+				int next = neighbour(idx, k);
+				if (next >= 0) {
+					Cell neigh = cells[next];
+					cell.wall[k] = neigh.wall[oppoDir[k]];
+					cell.neigh[k] = neigh;
+					neigh.neigh[oppoDir[k]] = cell;
 				}
+				else
+					cell.wall[k] = new Wall();
 			}
 		}
 		
 		// set up entrance and exit
 		if (isIn(entR, entC + (entR + 1) / 2))
-			entrance = map[entR][entC + (entR + 1) / 2];
+			entrance = cellAt(entR, entC + (entR + 1) / 2);
 		if (isIn(exitR, exitC + (exitR + 1) / 2))
-			exit = map[exitR][exitC + (exitR + 1) / 2];
+			exit = cellAt(exitR, exitC + (exitR + 1) / 2);
 
-                // set up recording matrix for validation
-                isRecorded = new boolean[sizeR][sizeC + (sizeR + 1) / 2];
+		// set up recording array for validation, by cell index
+		isRecorded = new boolean[cells.length];
 	} // end of initMaze()
 	
 	
-	@Override
-	public boolean isPerfect() {
-		boolean visited[][] = new boolean[sizeR][sizeC];
-		Queue<Cell> queue = new LinkedList<Cell>();
-		
-		queue.add(entrance);
-		
-		while (!queue.isEmpty()) {
-			Cell currCell = queue.poll();
-			visited[currCell.r][currCell.c - (currCell.r + 1) / 2] = true;
-			int visitedNeigh = 0;
-			for (int i = 0; i < NUM_DIR; i++) {
-				Cell nextCell = currCell.neigh[i];
-				if (!isIn(nextCell) || currCell.wall[i].present)
-					continue;
-				if (visited[nextCell.r][nextCell.c - (nextCell.r + 1) / 2])
-					visitedNeigh += 1; 
-				else
-					queue.add(nextCell);
-			}
-			
-			if (visitedNeigh > 1)
-				return false;
-		}
-		
-		for (int i = 0; i < sizeR; i++)
-			for (int j = 0; j < sizeC; j++)
-				if (!visited[i][j])
-					return false;
-		
-		return true;
-	} // end of isPerfect()
-	
-	
 	@Override
 	public void draw() {
 		// draw nothing if visualization is switched off
 		if (!isVisu)
 			return;
 		
-		for (int i = 0; i < sizeR; i++)
-			for (int j = (i + 1) / 2; j < sizeC + (i + 1) / 2; j++)
-				for (int k = 0; k < NUM_DIR; k++) {
-					if (map[i][j].wall[k] != null)
-						map[i][j].wall[k].drawn = false;
-				}
+		for (Cell cell : cells)
+			for (int k = 0; k < NUM_DIR; k++) {
+				if (cell.wall[k] != null)
+					cell.wall[k].drawn = false;
+			}
 		
 
 		for (int k = 0; k < NUM_DIR; k++) {
@@ -161,13 +160,13 @@ public class HexMaze extends NormalMaze {
 		for (int r = 0; r < sizeR; r++) {
 			for (int c = 0; c < sizeC; c++) {
 				double shift = r % 2 * 0.5;
-				int cc = c + (r + 1) / 2;
-				if (map[r][cc].wall[EAST].present && !map[r][cc].wall[EAST].drawn) { StdDraw.line(c+1+shift, r+0.5-halfEdge, c+1+shift, r+0.5+halfEdge); map[r][cc].wall[EAST].drawn = true; }
-				if (map[r][cc].wall[NORTHEAST].present && !map[r][cc].wall[NORTHEAST].drawn) { StdDraw.line(c+0.5+shift, r+0.5+2*halfEdge, c+1+shift, r+0.5+halfEdge); map[r][cc].wall[NORTHEAST].drawn = true; }
-				if (map[r][cc].wall[NORTHWEST].present && !map[r][cc].wall[NORTHWEST].drawn) { StdDraw.line(c+0.5+shift, r+0.5+2*halfEdge, c+shift, r+0.5+halfEdge); map[r][cc].wall[NORTHWEST].drawn = true; }
-				if (map[r][cc].wall[WEST].present && !map[r][cc].wall[WEST].drawn) { StdDraw.line(c+shift, r+0.5-halfEdge, c+shift, r+0.5+halfEdge); map[r][cc].wall[WEST].drawn = true; }
-				if (map[r][cc].wall[SOUTHWEST].present && !map[r][cc].wall[SOUTHWEST].drawn) { StdDraw.line(c+shift, r+0.5-halfEdge, c+0.5+shift, r+0.5-2*halfEdge); map[r][cc].wall[SOUTHWEST].drawn = true; }
-				if (map[r][cc].wall[SOUTHEAST].present && !map[r][cc].wall[SOUTHEAST].drawn) { StdDraw.line(c+1+shift, r+0.5-halfEdge, c+0.5+shift, r+0.5-2*halfEdge); map[r][cc].wall[SOUTHEAST].drawn = true; }
+				Cell cell = cells[r * sizeC + c];
+				if (cell.wall[EAST].present && !cell.wall[EAST].drawn) { StdDraw.line(c+1+shift, r+0.5-halfEdge, c+1+shift, r+0.5+halfEdge); cell.wall[EAST].drawn = true; }
+				if (cell.wall[NORTHEAST].present && !cell.wall[NORTHEAST].drawn) { StdDraw.line(c+0.5+shift, r+0.5+2*halfEdge, c+1+shift, r+0.5+halfEdge); cell.wall[NORTHEAST].drawn = true; }
+				if (cell.wall[NORTHWEST].present && !cell.wall[NORTHWEST].drawn) { StdDraw.line(c+0.5+shift, r+0.5+2*halfEdge, c+shift, r+0.5+halfEdge); cell.wall[NORTHWEST].drawn = true; }
+				if (cell.wall[WEST].present && !cell.wall[WEST].drawn) { StdDraw.line(c+shift, r+0.5-halfEdge, c+shift, r+0.5+halfEdge); cell.wall[WEST].drawn = true; }
+				if (cell.wall[SOUTHWEST].present && !cell.wall[SOUTHWEST].drawn) { StdDraw.line(c+shift, r+0.5-halfEdge, c+0.5+shift, r+0.5-2*halfEdge); cell.wall[SOUTHWEST].drawn = true; }
+				if (cell.wall[SOUTHEAST].present && !cell.wall[SOUTHEAST].drawn) { StdDraw.line(c+1+shift, r+0.5-halfEdge, c+0.5+shift, r+0.5-2*halfEdge); cell.wall[SOUTHEAST].drawn = true; }
 			}
 		}
 	} // end of draw()
@@ -175,8 +174,15 @@ public class HexMaze extends NormalMaze {
 	
 	@Override
 	public void drawFtPrt(Cell cell) {
-                // record every cell drawn
-                isRecorded[cell.r][cell.c] = true;
+		// headless solves dropping footprints stop here, before any sink call
+		if (footprintSink == FootprintSink.NONE)
+			return;
+
+		// send every cell drawn to the sink, or record it
+		if (footprintSink != null)
+			footprintSink.footprint(cell);
+		else
+			isRecorded[index(cell)] = true;
 
 		// draw nothing if visualization is switched off
 		if (!isVisu)
@@ -185,58 +191,5 @@ public class HexMaze extends NormalMaze {
 		StdDraw.setPenColor(StdDraw.GRAY);
 		StdDraw.filledCircle(cell.r % 2 * 0.5 + cell.c - (cell.r + 1) / 2 + 0.5, cell.r + 0.5, 0.25);
 	} // end of drawFtPrt()
-	
-
-        @Override
-        public boolean validate() {
-                boolean isValid = true;
-                int pathLength = 0;
-                int count = 0;
-
-                int stepCount[][] = new int[sizeR][sizeC + (sizeR + 1) / 2];
-                Queue<Cell> queue = new LinkedList<Cell>();
-
-                queue.add(entrance);
-                stepCount[entrance.r][entrance.c] = 1;
-
-                while (!queue.isEmpty()) {
-                        Cell cell = queue.poll();
-                        count++;
-                        int step = stepCount[cell.r][cell.c];
-
-                        for (int i = 0; i < Maze.NUM_DIR; i++) {
-                                Cell next = cell.neigh[i];
-                                if (next != null && !cell.wall[i].present && isRecorded[next.r][next.c] && stepCount[next.r][next.c] == 0) {
-                                        stepCount[next.r][next.c] = step + 1;
-                                        queue.add(next);
-                                }
-                        }
-                }
-
-                if (stepCount[exit.r][exit.c] == 0) {
-                        isValid = false;
-                        System.out.println("[Validation] Exit is not reached.");
-                }
-                else {
-                        pathLength = stepCount[exit.r][exit.c];
-                }
-
-                for (int i = 0; i < sizeR; i++){
-                        for (int j = 0; j < sizeC + (sizeR + 1) / 2; j++) {
-                                if (isValid && isRecorded[i][j] && stepCount[i][j] == 0) {
-                                        isValid = false;
-                                        System.out.println("[Validation] Visited cell not reachable.");
-                                }
-                        }
-                }
-
-                if (isValid) {
-                        System.out.println("[Validation] Number of cells visited = " + count);
-                        System.out.println("[Validation] Path length of the solution = " + pathLength);
-                }
-
-                return isValid;
-        } // end of validate()
-
 
 } // end of class HexMaze
\ No newline at end of file
@@ -1,5 +1,7 @@
 package maze;
 
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
 /**
@@ -10,10 +12,10 @@ import java.util.List;
  * Abstract class of Maze defines the interface 
  * and a set of constants common for every type of maze in the assignment.
  * solvers require that:
- * all cells are stored in matrix map[][], 
- * map[r][c].r == r and map[r][c].c == c,  
+ * all cells are stored contiguously in cells[], by index, 
+ * cellAt(r, c).r == r and cellAt(r, c).c == c,  
  * all neighbor cell objects are assigned correctly for each cell, 
- * and same wall object are shared by two cell objects next to the wall
+ * and same wall object are shared by two cell objects next to the wall.
  */
 public abstract class Maze {
 	
@@ -35,7 +37,7 @@ public abstract class Maze {
 	public final static int SOUTH = 5;
 	public final static int NUM_DIR = 6;
 	// used for move along a deriction, for both square and hexagon
-	// e.g., the northeast neighbor of map[r][c] would be map[r + deltaR[NORTHEAST][c + deltaC[NORTHEAST]]
+	// e.g., the northeast neighbor of cellAt(r, c) would be cellAt(r + deltaR[NORTHEAST], c + deltaC[NORTHEAST])
 	public final static int deltaR[] = { 0, 1, 1, 0, -1, -1 };
 	public final static int deltaC[] = { 1, 1, 0, -1, -1, 0 };
 	public final static int oppoDir[] = { 3, 4, 5, 0, 1, 2 };
@@ -47,11 +49,53 @@ public abstract class Maze {
 	public int sizeR;
 	public int sizeC;
 	public int sizeTunnel;
-	public Cell map[][] = null;
+
+	/**
+	 * tunnels by cell index, see index(), with the other end of a cell's tunnel in O(1)
+	 */
+	public TunnelIndex tunnelIndex = TunnelIndex.NONE;
+
+	/**
+	 * the cells in index order, see index(), with no empty slots
+	 */
+	public Cell cells[] = null;
 	public Cell entrance;
 	public Cell exit;
 	public boolean isVisu = true;
+
+	/**
+	 * if set, footprints are sent to it instead of being recorded for validate()
+	 */
+	public FootprintSink footprintSink = null;
 	
+	/**
+	 * Pick what drawFtPrt(Cell) does for the next solve, replacing footprintSink.
+	 * @param mode Footprint mode, VISUAL switches visualisation on and the others off.
+	 * @return The sink installed, null for VISUAL.
+	 */
+	public FootprintSink setFootprintMode(FootprintMode mode) {
+		switch (mode) {
+		case NONE:
+			footprintSink = FootprintSink.NONE;
+			isVisu = false;
+			break;
+		case COUNT:
+			footprintSink = new CountingFootprintSink();
+			isVisu = false;
+			break;
+		case BITSET:
+			footprintSink = new BitsetFootprintSink(this);
+			isVisu = false;
+			break;
+		case VISUAL:
+			footprintSink = null;
+			isVisu = true;
+			break;
+		}
+		return footprintSink;
+	} // end of setFootprintMode()
+
+
 	/**
 	 * To test whether the input entrance and exit locations are valid.
 	 * @param r Row of a cell.
@@ -72,6 +116,88 @@ public abstract class Maze {
 	 */
 	public abstract void initMaze(int rs, int cs, int entR, int entC, int exitR, int exitC, List<int[]> tunnelList);
 
+	/**
+	 * Initialize the basic structure of an all-wall maze, with the tunnels in one int array.
+	 * @param tunnels Tunnel i goes from {tunnels[4i], tunnels[4i + 1]} to {tunnels[4i + 2], tunnels[4i + 3]}.
+	 * @param numTunnels Number of tunnels.
+	 * @see #initMaze(int, int, int, int, int, int, List)
+	 */
+	public void initMaze(int rs, int cs, int entR, int entC, int exitR, int exitC, int tunnels[], int numTunnels) {
+		List<int[]> tunnelList = new ArrayList<int[]>(numTunnels);
+		for (int i = 0; i < numTunnels; i++)
+			tunnelList.add(Arrays.copyOfRange(tunnels, 4 * i, 4 * i + 4));
+		initMaze(rs, cs, entR, entC, exitR, exitC, tunnelList);
+	} // end of initMaze()
+
+	/**
+	 * Cells are numbered from 0 to numIndices() - 1 for code working on int arrays,
+	 * row by row: r * sizeC + c for cell (r, c) in a rectangular maze.
+	 * @return Number of cell indices.
+	 */
+	public int numIndices() {
+		return cells.length;
+	} // end of numIndices()
+
+	/**
+	 * @param r Row of a cell.
+	 * @param c Column of a cell, see width().
+	 * @return Index of cell (r, c).
+	 */
+	public int index(int r, int c) {
+		return r * sizeC + c;
+	} // end of index()
+
+	/**
+	 * @param cell A cell of the maze.
+	 * @return Index of the cell.
+	 */
+	public int index(Cell cell) {
+		return index(cell.r, cell.c);
+	} // end of index()
+
+	/**
+	 * @param idx Index of a cell.
+	 * @return The cell object with this index, null for an index holding no cell.
+	 */
+	public Cell cellAt(int idx) {
+		return cells[idx];
+	} // end of cellAt()
+
+	/**
+	 * @param r Row of a cell.
+	 * @param c Column of a cell, see width().
+	 * @return The cell object at (r, c), null if the maze has no cell there.
+	 */
+	public abstract Cell cellAt(int r, int c);
+
+	/**
+	 * Columns of hex mazes are shifted by half a cell every row, so their coordinates span more
+	 * columns than a row has cells.
+	 * @return Number of columns of the cell coordinates, from 0.
+	 */
+	public int width() {
+		return sizeC;
+	} // end of width()
+
+	/**
+	 * @param idx Index of a cell.
+	 * @param dir Direction.
+	 * @return Index of the neighbour of the cell on direction dir, -1 if it has none.
+	 */
+	public abstract int neighbour(int idx, int dir);
+
+	/**
+	 * @param idx Index of a cell.
+	 * @param dir Direction.
+	 * @return Index of the cell reached from the cell through direction dir, -1 if there is a wall.
+	 */
+	public int passage(int idx, int dir) {
+		Cell cell = cells[idx];
+		if (cell.neigh[dir] == null || cell.wall[dir].present)
+			return -1;
+		return index(cell.neigh[dir]);
+	} // end of passage()
+
 	/**
 	 * Check whether the maze is a perfect maze
 	 * @return true if it is perfect maze, i.e. every cell can be visited and there is no loop.
@@ -84,7 +210,9 @@ public abstract class Maze {
 	public abstract void draw();
 
 	/**
-	 * Draw a foot print at cell's position, for testing solution
+	 * Draw a foot print at cell's position, for testing solution.
+	 * The foot print is sent to footprintSink if set, otherwise recorded for validate().
+	 * Nothing at all is done with FootprintSink.NONE, which is also never drawn.
 	 * @param cell Cell to be drawn.
 	 */
 	public abstract void drawFtPrt(Cell cell);
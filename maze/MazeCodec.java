@@ -0,0 +1,420 @@
+package maze;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Compact archival coding of perfect mazes.
+ *
+ * A perfect maze is a spanning tree of its cells, so it is coded as a depth-first traversal
+ * of the tree from the entrance in which every cell is reached from its parent. On a cell,
+ * its neighbours not reached yet are taken in counterclockwise order starting straight ahead,
+ * and one bit tells whether the passage to each of them is open, which makes it a child of the
+ * cell. Neighbours already reached get no bit, the only open one being the parent. A tunnel
+ * is always open, so the other end of a tunnel is a child without any bit.
+ *
+ * The bits are written with an adaptive binary arithmetic coder, with probabilities learnt
+ * separately for every (position in the turn, neighbours not reached yet, children so far).
+ * Corridors and branching follow the generator's habits, which these contexts capture, so
+ * this gets close to the entropy of the tree and well under the 2 bits per cell of a raw wall
+ * bitmap.
+ *
+ * Both directions are streaming: encoding writes bits as the traversal goes, and decoding
+ * opens passages as bits are read, running the same traversal.
+ *
+ * Layout, all numbers big-endian:
+ *   int MAGIC, type, sizeR, sizeC, entR, entC, exitR, exitC, numTunnels
+ *   numTunnels tunnels as four ints r1, c1, r2, c2
+ *   arithmetic coded bits
+ *
+ * Entrance, exit and tunnels use the coordinates of Maze.cellAt(r, c).
+ */
+public class MazeCodec {
+
+	/**
+	 * first int of a coded maze
+	 */
+	public final static int MAGIC = 0x4d5a4331;
+
+	// directions of a cell in counterclockwise order
+	private final static int SQUARE_DIRS[] = { Maze.EAST, Maze.NORTH, Maze.WEST, Maze.SOUTH };
+	private final static int HEX_DIRS[] = { Maze.EAST, Maze.NORTHEAST, Maze.NORTHWEST, Maze.WEST, Maze.SOUTHWEST, Maze.SOUTHEAST };
+
+	// children counted in the context up to this many
+	private final static int MAX_CHILDREN = 3;
+
+	// probabilities are PROB_BITS-bit fixed point, moved by 1 / 2^ADAPT of the error on each bit
+	private final static int PROB_BITS = 11;
+	private final static int PROB_ONE = 1 << PROB_BITS;
+	private final static int ADAPT = 5;
+
+
+	/**
+	 * Encode a perfect maze.
+	 * @param maze Maze to encode.
+	 * @param out Stream written to, flushed but not closed.
+	 * @throws IOException If the stream cannot be written.
+	 * @throws IllegalArgumentException If the maze is not perfect, nothing being written then.
+	 */
+	public static void encode(Maze maze, OutputStream out) throws IOException {
+		if (!maze.isPerfect())
+			throw new IllegalArgumentException("Only perfect mazes can be coded.");
+		write(new ObjectMazeSource(maze), out);
+	} // end of encode()
+
+
+	/**
+	 * Encode a perfect maze read through a source, e.g. a MazeFile. The traversal keeps an
+	 * int per cell, so the maze must have less than 2^31 cell indices.
+	 * @param source Maze to encode.
+	 * @param out Stream written to, flushed but not closed.
+	 * @throws IOException If the stream cannot be written.
+	 * @throws IllegalArgumentException If the maze is not perfect, nothing being written then.
+	 */
+	public static void encode(MazeSource source, OutputStream out) throws IOException {
+		if (!isPerfect(source))
+			throw new IllegalArgumentException("Only perfect mazes can be coded.");
+		write(source, out);
+	} // end of encode()
+
+
+	/*
+	 * Write a maze known to be perfect.
+	 */
+	private static void write(MazeSource source, OutputStream out) throws IOException {
+		int width = source.width();
+		int sizeR = source.sizeR();
+		int numSlots = Math.toIntExact((long) sizeR * width);
+
+		int numCells = 0;
+		List<int[]> tunnels = new ArrayList<int[]>();
+		for (int r = 0; r < sizeR; r++)
+			for (int c = 0; c < width; c++) {
+				if (!source.isIn(r, c))
+					continue;
+				numCells++;
+				long other = source.tunnelTo(r, c);
+				if (other > (long) r * width + c)
+					tunnels.add(new int[] { r, c, (int) (other / width), (int) (other % width) });
+			}
+
+		DataOutputStream data = new DataOutputStream(new BufferedOutputStream(out, 1 << 16));
+		data.writeInt(MAGIC);
+		data.writeInt(source.type());
+		data.writeInt(sizeR);
+		data.writeInt(source.sizeC());
+		data.writeInt(source.entranceR());
+		data.writeInt(source.entranceC());
+		data.writeInt(source.exitR());
+		data.writeInt(source.exitC());
+		data.writeInt(tunnels.size());
+		for (int tunnel[] : tunnels)
+			for (int x : tunnel)
+				data.writeInt(x);
+
+		Encoder encoder = new Encoder(data);
+		int dirs[] = source.type() == Maze.HEX ? HEX_DIRS : SQUARE_DIRS;
+		short probs[] = newModel(dirs.length);
+		boolean reached[] = new boolean[numSlots];
+		// cells to visit, each with the position in dirs[] of the direction it was entered by
+		int stack[] = new int[2 * numCells];
+		int top = 0;
+		int entrance = source.entranceR() * width + source.entranceC();
+		reached[entrance] = true;
+		stack[top++] = entrance;
+		stack[top++] = 0;
+
+		int unreached[] = new int[dirs.length];
+		while (top > 0) {
+			int ahead = stack[--top];
+			int u = stack[--top];
+			int r = u / width;
+			int c = u % width;
+
+			int numUnreached = 0;
+			for (int j = 0; j < dirs.length; j++) {
+				int k = (ahead + j) % dirs.length;
+				int dir = dirs[k];
+				int nr = r + Maze.deltaR[dir];
+				int nc = c + Maze.deltaC[dir];
+				if (!source.isIn(nr, nc))
+					continue;
+				boolean open = source.isOpen(r, c, dir);
+				if (!reached[nr * width + nc])
+					unreached[numUnreached++] = open ? k : ~k;
+			}
+
+			int children = 0;
+			for (int i = 0; i < numUnreached; i++) {
+				int k = unreached[i] >= 0 ? unreached[i] : ~unreached[i];
+				int bit = unreached[i] >= 0 ? 1 : 0;
+				encoder.encodeBit(probs, context(dirs.length, (k - ahead + dirs.length) % dirs.length, numUnreached, children), bit);
+				if (bit == 1) {
+					int v = u + Maze.deltaR[dirs[k]] * width + Maze.deltaC[dirs[k]];
+					reached[v] = true;
+					stack[top++] = v;
+					stack[top++] = k;
+					children++;
+				}
+			}
+
+			long other = source.tunnelTo(r, c);
+			if (other >= 0) {
+				if (!reached[(int) other]) {
+					reached[(int) other] = true;
+					stack[top++] = (int) other;
+					stack[top++] = 0;
+				}
+			}
+		}
+		encoder.finish();
+		data.flush();
+	} // end of write()
+
+
+	/*
+	 * Depth-first search from the entrance, perfect if it reaches every cell and sees every
+	 * passage from both ends, tunnels included, numCells - 1 passages making a spanning tree.
+	 */
+	private static boolean isPerfect(MazeSource source) {
+		int width = source.width();
+		int sizeR = source.sizeR();
+		boolean reached[] = new boolean[Math.toIntExact((long) sizeR * width)];
+		long numCells = 0;
+		for (int r = 0; r < sizeR; r++)
+			for (int c = 0; c < width; c++)
+				if (source.isIn(r, c))
+					numCells++;
+
+		int dirs[] = source.type() == Maze.HEX ? HEX_DIRS : SQUARE_DIRS;
+		int stack[] = new int[(int) numCells];
+		int top = 0;
+		int entrance = source.entranceR() * width + source.entranceC();
+		reached[entrance] = true;
+		stack[top++] = entrance;
+		long numReached = 1;
+		long passages = 0;
+
+		while (top > 0) {
+			int u = stack[--top];
+			int r = u / width;
+			int c = u % width;
+			for (int dir : dirs) {
+				int nr = r + Maze.deltaR[dir];
+				int nc = c + Maze.deltaC[dir];
+				if (!source.isIn(nr, nc) || !source.isOpen(r, c, dir))
+					continue;
+				passages++;
+				int v = nr * width + nc;
+				if (!reached[v]) {
+					reached[v] = true;
+					numReached++;
+					stack[top++] = v;
+				}
+			}
+			long other = source.tunnelTo(r, c);
+			if (other >= 0) {
+				passages++;
+				if (!reached[(int) other]) {
+					reached[(int) other] = true;
+					numReached++;
+					stack[top++] = (int) other;
+				}
+			}
+		}
+		return numReached == numCells && passages == 2 * (numCells - 1);
+	} // end of isPerfect()
+
+
+	/**
+	 * Decode a maze written by encode().
+	 * @param in Stream read from, not closed.
+	 * @return Decoded maze.
+	 * @throws IOException If the stream cannot be read or is not a coded maze.
+	 */
+	public static Maze decode(InputStream in) throws IOException {
+		DataInputStream data = new DataInputStream(new BufferedInputStream(in, 1 << 16));
+		if (data.readInt() != MAGIC)
+			throw new IOException("Not a coded maze.");
+		int type = data.readInt();
+		int sizeR = data.readInt();
+		int sizeC = data.readInt();
+		int entR = data.readInt();
+		int entC = data.readInt();
+		int exitR = data.readInt();
+		int exitC = data.readInt();
+		int numTunnels = data.readInt();
+		List<int[]> tunnels = new ArrayList<int[]>();
+		for (int i = 0; i < numTunnels; i++)
+			tunnels.add(new int[] { data.readInt(), data.readInt(), data.readInt(), data.readInt() });
+
+		Maze maze = MazeFile.createMaze(type, sizeR, sizeC, entR, entC, exitR, exitC, tunnels);
+		int width = maze.width();
+
+		Decoder decoder = new Decoder(data);
+		int dirs[] = type == Maze.HEX ? HEX_DIRS : SQUARE_DIRS;
+		short probs[] = newModel(dirs.length);
+		boolean reached[] = new boolean[sizeR * width];
+		Cell stack[] = new Cell[sizeR * width];
+		int stackAhead[] = new int[sizeR * width];
+		int top = 0;
+		reached[maze.entrance.r * width + maze.entrance.c] = true;
+		stack[top] = maze.entrance;
+		stackAhead[top++] = 0;
+
+		int unreached[] = new int[dirs.length];
+		while (top > 0) {
+			top--;
+			Cell cell = stack[top];
+			int ahead = stackAhead[top];
+
+			int numUnreached = 0;
+			for (int j = 0; j < dirs.length; j++) {
+				int k = (ahead + j) % dirs.length;
+				Cell neigh = cell.neigh[dirs[k]];
+				if (neigh != null && !reached[neigh.r * width + neigh.c])
+					unreached[numUnreached++] = k;
+			}
+
+			int children = 0;
+			for (int i = 0; i < numUnreached; i++) {
+				int k = unreached[i];
+				if (decoder.decodeBit(probs, context(dirs.length, (k - ahead + dirs.length) % dirs.length, numUnreached, children)) == 1) {
+					Cell neigh = cell.neigh[dirs[k]];
+					cell.wall[dirs[k]].present = false;
+					reached[neigh.r * width + neigh.c] = true;
+					stack[top] = neigh;
+					stackAhead[top++] = k;
+					children++;
+				}
+			}
+
+			Cell other = cell.tunnelTo;
+			if (other != null && !reached[other.r * width + other.c]) {
+				reached[other.r * width + other.c] = true;
+				stack[top] = other;
+				stackAhead[top++] = 0;
+			}
+		}
+		return maze;
+	} // end of decode()
+
+
+	/*
+	 * Probability of a passage to the neighbour at position turn of the turn from straight
+	 * ahead, with numUnreached neighbours to code and children found so far.
+	 */
+	private static int context(int numDirs, int turn, int numUnreached, int children) {
+		return (turn * (numDirs + 1) + numUnreached) * (MAX_CHILDREN + 1) + Math.min(children, MAX_CHILDREN);
+	} // end of context()
+
+
+	private static short[] newModel(int numDirs) {
+		short probs[] = new short[numDirs * (numDirs + 1) * (MAX_CHILDREN + 1)];
+		Arrays.fill(probs, (short) (PROB_ONE / 2));
+		return probs;
+	} // end of newModel()
+
+
+	/*
+	 * Binary range encoder, carries propagated through a cached byte and a run of 0xff bytes.
+	 */
+	private static class Encoder {
+		private OutputStream out;
+		private long low = 0;
+		private int range = -1;
+		private int cache = 0;
+		private long cacheSize = 1;
+
+		Encoder(OutputStream out) {
+			this.out = out;
+		}
+
+		void encodeBit(short probs[], int i, int bit) throws IOException {
+			int p = probs[i];
+			int bound = (range >>> PROB_BITS) * p;
+			if (bit == 0) {
+				range = bound;
+				probs[i] = (short) (p + ((PROB_ONE - p) >>> ADAPT));
+			} else {
+				low += bound & 0xffffffffL;
+				range -= bound;
+				probs[i] = (short) (p - (p >>> ADAPT));
+			}
+			while ((range & 0xff000000) == 0) {
+				range <<= 8;
+				shiftLow();
+			}
+		}
+
+		void finish() throws IOException {
+			for (int i = 0; i < 5; i++)
+				shiftLow();
+		}
+
+		private void shiftLow() throws IOException {
+			if (low < 0xff000000L || low > 0xffffffffL) {
+				int carry = (int) (low >>> 32);
+				int temp = cache;
+				do {
+					out.write((temp + carry) & 0xff);
+					temp = 0xff;
+				} while (--cacheSize != 0);
+				cache = (int) (low >>> 24) & 0xff;
+			}
+			cacheSize++;
+			low = (low & 0x00ffffffL) << 8;
+		}
+	} // end of class Encoder
+
+
+	private static class Decoder {
+		private InputStream in;
+		private int range = -1;
+		private int code = 0;
+
+		Decoder(InputStream in) throws IOException {
+			this.in = in;
+			for (int i = 0; i < 5; i++)
+				code = (code << 8) | next();
+		}
+
+		int decodeBit(short probs[], int i) throws IOException {
+			int p = probs[i];
+			int bound = (range >>> PROB_BITS) * p;
+			int bit;
+			if (Integer.compareUnsigned(code, bound) < 0) {
+				range = bound;
+				probs[i] = (short) (p + ((PROB_ONE - p) >>> ADAPT));
+				bit = 0;
+			} else {
+				code -= bound;
+				range -= bound;
+				probs[i] = (short) (p - (p >>> ADAPT));
+				bit = 1;
+			}
+			while ((range & 0xff000000) == 0) {
+				range <<= 8;
+				code = (code << 8) | next();
+			}
+			return bit;
+		}
+
+		private int next() throws IOException {
+			int b = in.read();
+			if (b < 0)
+				throw new EOFException("Coded maze is truncated.");
+			return b;
+		}
+	} // end of class Decoder
+
+} // end of class MazeCodec
@@ -0,0 +1,399 @@
+package maze;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedOutputStream;
+
+/**
+ * Maze stored in a versioned binary file, opened with FileChannel.map so that a maze of
+ * several GB loads without being read and several processes share its pages read-only.
+ *
+ * Layout, all numbers big-endian:
+ *   header, HEADER bytes:
+ *     int MAGIC, VERSION, type, sizeR, sizeC, width, entR, entC, exitR, exitC,
+ *     int numTunnels, bitsPerCell, long seed, long checksum
+ *   tunnel table, 2 * numTunnels pairs of long cell indices (from, to) sorted by from,
+ *     each tunnel appearing once from each end
+ *   wall bitmap, bitsPerCell bits per cell index, least significant bit first: bit k set
+ *     if the cell is open on forward direction k (EAST, NORTH for square mazes,
+ *     EAST, NORTHEAST, NORTHWEST for hex mazes). Other directions are read from the neighbour.
+ *
+ * Entrance and exit use the coordinates of Maze.cellAt(r, c). The checksum is the CRC32 of everything
+ * after the header, it is only checked by verify() so that opening stays O(1).
+ */
+public class MazeFile implements MazeSource, Closeable {
+
+	/**
+	 * first int of a maze file
+	 */
+	public final static int MAGIC = 0x4d415a45;
+
+	/**
+	 * version written, files of a later version are refused
+	 */
+	public final static int VERSION = 1;
+
+	/**
+	 * bytes before the tunnel table
+	 */
+	public final static int HEADER = 64;
+
+	// forward directions stored in the bitmap, the others are opposite to one of them
+	private final static int SQUARE_FORWARD[] = { Maze.EAST, Maze.NORTH };
+	private final static int HEX_FORWARD[] = { Maze.EAST, Maze.NORTHEAST, Maze.NORTHWEST };
+
+	// the bitmap is mapped in segments of SEGMENT bytes, each overlapping the next by a few
+	// bytes so that the bits of a cell never straddle two segments
+	private final static int SEGMENT = 1 << 30;
+	private final static int OVERLAP = 8;
+
+	private FileChannel channel;
+	private int type;
+	private int sizeR;
+	private int sizeC;
+	private int width;
+	private int entR;
+	private int entC;
+	private int exitR;
+	private int exitC;
+	private int numTunnels;
+	private int bitsPerCell;
+	private long seed;
+	private long checksum;
+
+	// bit of a cell in the bitmap for each direction, -1 if the direction is not stored
+	private int bitOf[] = new int[Maze.NUM_DIR];
+
+	private MappedByteBuffer tunnels;
+	private MappedByteBuffer bitmap[];
+	private long bitmapBytes;
+
+
+	/**
+	 * Open a maze file for reading and map it.
+	 * @param file File written by write().
+	 * @throws IOException If the file cannot be read, is not a maze file or has a later version.
+	 */
+	public MazeFile(File file) throws IOException {
+		channel = FileChannel.open(file.toPath(), StandardOpenOption.READ);
+		try {
+			if (channel.size() < HEADER)
+				throw new IOException(file + " is not a maze file.");
+			ByteBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0, HEADER);
+			if (header.getInt() != MAGIC)
+				throw new IOException(file + " is not a maze file.");
+			int version = header.getInt();
+			if (version > VERSION)
+				throw new IOException(file + " has version " + version + ", only up to " + VERSION + " is supported.");
+			type = header.getInt();
+			sizeR = header.getInt();
+			sizeC = header.getInt();
+			width = header.getInt();
+			entR = header.getInt();
+			entC = header.getInt();
+			exitR = header.getInt();
+			exitC = header.getInt();
+			numTunnels = header.getInt();
+			bitsPerCell = header.getInt();
+			seed = header.getLong();
+			checksum = header.getLong();
+
+			Arrays.fill(bitOf, -1);
+			int forward[] = forward(type);
+			for (int k = 0; k < forward.length; k++)
+				bitOf[forward[k]] = k;
+
+			long tunnelBytes = 32L * numTunnels;
+			long start = HEADER + tunnelBytes;
+			bitmapBytes = ((long) sizeR * width * bitsPerCell + 7) / 8;
+			if (channel.size() < start + bitmapBytes)
+				throw new IOException(file + " is truncated.");
+
+			tunnels = channel.map(FileChannel.MapMode.READ_ONLY, HEADER, tunnelBytes);
+			bitmap = new MappedByteBuffer[(int) Math.max(1, (bitmapBytes + SEGMENT - 1) / SEGMENT)];
+			for (int s = 0; s < bitmap.length; s++) {
+				long from = (long) s * SEGMENT;
+				long length = Math.min(SEGMENT + OVERLAP, bitmapBytes - from);
+				bitmap[s] = channel.map(FileChannel.MapMode.READ_ONLY, start + from, length);
+			}
+		} catch (IOException e) {
+			channel.close();
+			throw e;
+		}
+	} // end of MazeFile()
+
+
+	/**
+	 * Write a maze to a file, with seed 0.
+	 * @param maze Maze to write.
+	 * @param file File to write to.
+	 * @throws IOException If the file cannot be written.
+	 */
+	public static void write(Maze maze, File file) throws IOException {
+		write(maze, file, 0);
+	} // end of write()
+
+
+	/**
+	 * Write a maze to a file.
+	 * @param maze Maze to write.
+	 * @param file File to write to.
+	 * @param seed Seed the maze was generated with, stored as is.
+	 * @throws IOException If the file cannot be written.
+	 */
+	public static void write(Maze maze, File file, long seed) throws IOException {
+		int width = maze.width();
+		int forward[] = forward(maze.type);
+
+		// tunnel table from each end, in increasing order of the first cell
+		List<long[]> pairs = new ArrayList<long[]>();
+		for (int r = 0; r < maze.sizeR; r++)
+			for (int c = 0; c < width; c++) {
+				Cell cell = maze.cellAt(r, c);
+				if (cell != null && cell.tunnelTo != null)
+					pairs.add(new long[] { (long) r * width + c, (long) cell.tunnelTo.r * width + cell.tunnelTo.c });
+			}
+
+		try (FileChannel out = FileChannel.open(file.toPath(), StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+				StandardOpenOption.TRUNCATE_EXISTING)) {
+			out.position(HEADER);
+			CRC32 crc = new CRC32();
+			DataOutputStream body = new DataOutputStream(
+					new BufferedOutputStream(new CheckedOutputStream(Channels.newOutputStream(out), crc), 1 << 16));
+			for (long pair[] : pairs) {
+				body.writeLong(pair[0]);
+				body.writeLong(pair[1]);
+			}
+
+			int bits = 0;
+			int numBits = 0;
+			for (int r = 0; r < maze.sizeR; r++)
+				for (int c = 0; c < width; c++) {
+					Cell cell = maze.cellAt(r, c);
+					for (int k = 0; k < forward.length; k++) {
+						int dir = forward[k];
+						if (cell != null && cell.neigh[dir] != null && !cell.wall[dir].present)
+							bits |= 1 << numBits;
+						if (++numBits == 8) {
+							body.writeByte(bits);
+							bits = 0;
+							numBits = 0;
+						}
+					}
+				}
+			if (numBits > 0)
+				body.writeByte(bits);
+			body.flush();
+
+			ByteBuffer header = ByteBuffer.allocate(HEADER);
+			header.putInt(MAGIC);
+			header.putInt(VERSION);
+			header.putInt(maze.type);
+			header.putInt(maze.sizeR);
+			header.putInt(maze.sizeC);
+			header.putInt(width);
+			header.putInt(maze.entrance.r);
+			header.putInt(maze.entrance.c);
+			header.putInt(maze.exit.r);
+			header.putInt(maze.exit.c);
+			header.putInt(pairs.size() / 2);
+			header.putInt(forward.length);
+			header.putLong(seed);
+			header.putLong(crc.getValue());
+			header.flip();
+			while (header.hasRemaining())
+				out.write(header, header.position());
+		}
+	} // end of write()
+
+
+	/**
+	 * Build the Cell objects of the maze.
+	 * @return Maze with the walls, tunnels, entrance and exit of the file.
+	 */
+	public Maze toMaze() {
+		List<int[]> tunnelList = new ArrayList<int[]>();
+		for (int i = 0; i < 2 * numTunnels; i++) {
+			long from = tunnels.getLong(16 * i);
+			long to = tunnels.getLong(16 * i + 8);
+			if (from < to)
+				tunnelList.add(new int[] { (int) (from / width), (int) (from % width), (int) (to / width), (int) (to % width) });
+		}
+
+		Maze maze = createMaze(type, sizeR, sizeC, entR, entC, exitR, exitC, tunnelList);
+
+		int forward[] = forward(type);
+		for (int r = 0; r < sizeR; r++)
+			for (int c = 0; c < width; c++) {
+				Cell cell = maze.cellAt(r, c);
+				if (cell == null)
+					continue;
+				int bits = bits((long) r * width + c);
+				for (int k = 0; k < forward.length; k++)
+					if ((bits & (1 << k)) != 0)
+						cell.wall[forward[k]].present = false;
+			}
+		return maze;
+	} // end of toMaze()
+
+
+	/*
+	 * Maze of a type with all its walls, entrance, exit and tunnels given in the coordinates of Maze.cellAt(r, c).
+	 */
+	static Maze createMaze(int type, int sizeR, int sizeC, int entR, int entC, int exitR, int exitC, List<int[]> tunnelList) {
+		Maze maze;
+		if (type == Maze.HEX)
+			maze = new HexMaze();
+		else if (type == Maze.TUNNEL)
+			maze = new TunnelMaze();
+		else
+			maze = new NormalMaze();
+
+		// initMaze() takes hex columns without the row offset
+		int entOffset = type == Maze.HEX ? (entR + 1) / 2 : 0;
+		int exitOffset = type == Maze.HEX ? (exitR + 1) / 2 : 0;
+		maze.initMaze(sizeR, sizeC, entR, entC - entOffset, exitR, exitC - exitOffset, tunnelList);
+		return maze;
+	} // end of createMaze()
+
+
+	/**
+	 * Check the file against the checksum of its header, reading all of it.
+	 * @return True if the checksum matches.
+	 */
+	public boolean verify() {
+		CRC32 crc = new CRC32();
+		crc.update(tunnels.duplicate().clear());
+		for (int s = 0; s < bitmap.length; s++) {
+			ByteBuffer segment = bitmap[s].duplicate().clear();
+			segment.limit((int) Math.min(SEGMENT, bitmapBytes - (long) s * SEGMENT));
+			crc.update(segment);
+		}
+		return crc.getValue() == checksum;
+	} // end of verify()
+
+
+	/**
+	 * @return Seed stored when the file was written.
+	 */
+	public long seed() {
+		return seed;
+	} // end of seed()
+
+
+	@Override
+	public int type() {
+		return type;
+	}
+
+	@Override
+	public int sizeR() {
+		return sizeR;
+	}
+
+	@Override
+	public int sizeC() {
+		return sizeC;
+	}
+
+	@Override
+	public int width() {
+		return width;
+	}
+
+	@Override
+	public int entranceR() {
+		return entR;
+	}
+
+	@Override
+	public int entranceC() {
+		return entC;
+	}
+
+	@Override
+	public int exitR() {
+		return exitR;
+	}
+
+	@Override
+	public int exitC() {
+		return exitC;
+	}
+
+	@Override
+	public boolean isIn(int r, int c) {
+		if (type == Maze.HEX)
+			return r >= 0 && r < sizeR && c >= (r + 1) / 2 && c < sizeC + (r + 1) / 2;
+		return r >= 0 && r < sizeR && c >= 0 && c < sizeC;
+	}
+
+	@Override
+	public boolean isOpen(int r, int c, int dir) {
+		if (bitOf[dir] >= 0)
+			return (bits((long) r * width + c) & (1 << bitOf[dir])) != 0;
+		// stored on the neighbour, as its opposite direction
+		int back = Maze.oppoDir[dir];
+		int nr = r + Maze.deltaR[dir];
+		int nc = c + Maze.deltaC[dir];
+		return bitOf[back] >= 0 && isIn(nr, nc) && (bits((long) nr * width + nc) & (1 << bitOf[back])) != 0;
+	}
+
+	@Override
+	public long tunnelTo(int r, int c) {
+		long idx = (long) r * width + c;
+		int lo = 0;
+		int hi = 2 * numTunnels;
+		while (lo < hi) {
+			int mid = (lo + hi) >>> 1;
+			long from = tunnels.getLong(16 * mid);
+			if (from == idx)
+				return tunnels.getLong(16 * mid + 8);
+			if (from < idx)
+				lo = mid + 1;
+			else
+				hi = mid;
+		}
+		return -1;
+	}
+
+
+	@Override
+	public void close() throws IOException {
+		channel.close();
+	} // end of close()
+
+
+	/*
+	 * Forward direction bits of a cell.
+	 */
+	private int bits(long idx) {
+		long bitPos = idx * bitsPerCell;
+		long byteIdx = bitPos >>> 3;
+		int shift = (int) (bitPos & 7);
+		MappedByteBuffer segment = bitmap[(int) (byteIdx / SEGMENT)];
+		int off = (int) (byteIdx % SEGMENT);
+		int v = segment.get(off) & 0xff;
+		if (shift + bitsPerCell > 8)
+			v |= (segment.get(off + 1) & 0xff) << 8;
+		return (v >>> shift) & ((1 << bitsPerCell) - 1);
+	} // end of bits()
+
+
+	private static int[] forward(int type) {
+		return type == Maze.HEX ? HEX_FORWARD : SQUARE_FORWARD;
+	} // end of forward()
+
+} // end of class MazeFile
@@ -0,0 +1,58 @@
+package maze;
+
+/**
+ * Random-access, read-only view of a maze, for solvers that must not rely on the whole
+ * maze being held as Cell objects (e.g. mazes streamed from disk or generated on the fly).
+ *
+ * Cells use the same coordinates as Maze.cellAt(r, c). Cell (r, c) has index r * width() + c,
+ * a long so that mazes with more than 2^31 cells can be addressed.
+ */
+public interface MazeSource
+{
+	/**
+	 * @return Type of the maze, one of Maze.NORMAL, Maze.TUNNEL or Maze.HEX.
+	 */
+	public int type();
+
+	/**
+	 * @return Number of rows and columns of the maze.
+	 */
+	public int sizeR();
+	public int sizeC();
+
+	/**
+	 * @return Length of a row of cell indices.
+	 */
+	public int width();
+
+	/**
+	 * @return Coordinates of the entrance and exit.
+	 */
+	public int entranceR();
+	public int entranceC();
+	public int exitR();
+	public int exitC();
+
+	/**
+	 * @param r Row coordinate.
+	 * @param c Column coordinate.
+	 * @return True if cell (r, c) is in the maze.
+	 */
+	public boolean isIn(int r, int c);
+
+	/**
+	 * @param r Row of a cell in the maze.
+	 * @param c Column of a cell in the maze.
+	 * @param dir Direction.
+	 * @return True if there is a neighbour on direction dir with no wall in between.
+	 */
+	public boolean isOpen(int r, int c, int dir);
+
+	/**
+	 * @param r Row of a cell in the maze.
+	 * @param c Column of a cell in the maze.
+	 * @return Index of the other end of the tunnel of the cell, -1 if it has none.
+	 */
+	public long tunnelTo(int r, int c);
+
+} // end of interface MazeSource
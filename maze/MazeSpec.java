@@ -0,0 +1,206 @@
+package maze;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * Input file of MazeTester, read by a hand-written parser over the mapped bytes of the file
+ * instead of a Scanner, so that files with hundreds of thousands of tunnels load quickly:
+ *
+ * <type> <generator> <solver> <rows> <cols> <entR> <entC> <exitR> <exitC> [tunnels]
+ *
+ * A job line of the batch and daemon modes is parsed the same way, with a seed after exitC.
+ * Tunnels are groups of four numbers p1Row p1Col p2Row p2Col, stored in one int array. They
+ * are checked while they are read: both ends must be cells of the maze, in the coordinates of
+ * its map, and no cell can be the end of two tunnels or both ends of one.
+ */
+public class MazeSpec {
+
+	public String type;
+	public String generatorName;
+	public String solverName;
+	public int rowNum;
+	public int colNum;
+	public int entR;
+	public int entC;
+	public int exitR;
+	public int exitC;
+
+	/**
+	 * seed of a job line, 0 for an input file
+	 */
+	public long seed = 0;
+
+	/**
+	 * tunnel i is {tunnels[4i], tunnels[4i + 1]} to {tunnels[4i + 2], tunnels[4i + 3]}
+	 */
+	public int tunnels[] = new int[0];
+	public int numTunnels = 0;
+
+	private ByteBuffer buf;
+	private int line = 1;
+
+	// cells already used as a tunnel end, one bit per cell of the map
+	private long used[];
+
+
+	/**
+	 * @param file Input file.
+	 * @return The spec of the file.
+	 * @throws IOException If the file cannot be read or is not a valid spec, the message giving the line.
+	 */
+	public static MazeSpec read(File file) throws IOException {
+		MazeSpec spec = new MazeSpec();
+		try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+			if (channel.size() > Integer.MAX_VALUE)
+				throw new IOException(file + " is too large for an input file.");
+			spec.buf = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+		}
+		spec.parse(false);
+		spec.buf = null;
+		spec.used = null;
+		return spec;
+	} // end of read()
+
+
+	/**
+	 * @param text Job line, see class comment.
+	 * @param lineNum Number of the line, given in errors.
+	 * @return The spec of the job.
+	 * @throws IOException If the line is not a valid job, the message giving the line.
+	 */
+	public static MazeSpec parseJob(String text, int lineNum) throws IOException {
+		MazeSpec spec = new MazeSpec();
+		spec.buf = ByteBuffer.wrap(text.getBytes(StandardCharsets.US_ASCII));
+		spec.line = lineNum;
+		spec.parse(true);
+		spec.buf = null;
+		spec.used = null;
+		return spec;
+	} // end of parseJob()
+
+
+	private void parse(boolean hasSeed) throws IOException {
+		type = word("maze type");
+		generatorName = word("generator name");
+		solverName = word("solver name");
+		rowNum = number("row number");
+		colNum = number("column number");
+		if (rowNum < 1 || colNum < 1)
+			throw error("Row or column number of maze must be at least 1.");
+		entR = number("entrance row");
+		entC = number("entrance column");
+		exitR = number("exit row");
+		exitC = number("exit column");
+		if (hasSeed)
+			seed = longNumber("seed");
+
+		int mapCols = type.equals("hex") ? colNum + (rowNum + 1) / 2 : colNum;
+		int ends[] = new int[4];
+		while (skipSpace()) {
+			for (int k = 0; k < 4; k++)
+				ends[k] = number("tunnel end");
+			if (numTunnels == 0)
+				used = new long[(int) (((long) rowNum * mapCols + 63) >>> 6)];
+			for (int k = 0; k < 4; k += 2) {
+				if (!isIn(ends[k], ends[k + 1]))
+					throw error("Tunnel end (" + ends[k] + ", " + ends[k + 1] + ") is outside the maze.");
+				long idx = (long) ends[k] * mapCols + ends[k + 1];
+				if ((used[(int) (idx >>> 6)] & (1L << idx)) != 0)
+					throw error("Cell (" + ends[k] + ", " + ends[k + 1] + ") is already the end of a tunnel.");
+				used[(int) (idx >>> 6)] |= 1L << idx;
+			}
+			if (4 * numTunnels + 4 > tunnels.length)
+				tunnels = Arrays.copyOf(tunnels, Math.max(64, 2 * tunnels.length));
+			System.arraycopy(ends, 0, tunnels, 4 * numTunnels, 4);
+			numTunnels++;
+		}
+	} // end of parse()
+
+
+	// same bounds as the map of the maze type
+	private boolean isIn(int r, int c) {
+		if (r < 0 || r >= rowNum)
+			return false;
+		if (type.equals("hex"))
+			return c >= (r + 1) / 2 && c < colNum + (r + 1) / 2;
+		return c >= 0 && c < colNum;
+	} // end of isIn()
+
+
+	/*
+	 * Skip white space, counting lines.
+	 * @return True if a token follows.
+	 */
+	private boolean skipSpace() {
+		while (buf.hasRemaining()) {
+			byte b = buf.get(buf.position());
+			if (b == '\n')
+				line++;
+			else if (b != ' ' && b != '\t' && b != '\r')
+				return true;
+			buf.position(buf.position() + 1);
+		}
+		return false;
+	} // end of skipSpace()
+
+
+	private String word(String what) throws IOException {
+		if (!skipSpace())
+			throw error("Missing " + what + ".");
+		int start = buf.position();
+		while (buf.hasRemaining() && !isSpace(buf.get(buf.position())))
+			buf.position(buf.position() + 1);
+		byte bytes[] = new byte[buf.position() - start];
+		buf.get(start, bytes);
+		return new String(bytes, StandardCharsets.US_ASCII);
+	} // end of word()
+
+
+	private int number(String what) throws IOException {
+		long value = longNumber(what);
+		if (value < -Integer.MAX_VALUE || value > Integer.MAX_VALUE)
+			throw error("The " + what + " is not a number.");
+		return (int) value;
+	} // end of number()
+
+
+	private long longNumber(String what) throws IOException {
+		if (!skipSpace())
+			throw error("Missing " + what + ".");
+		boolean negative = buf.get(buf.position()) == '-';
+		if (negative)
+			buf.position(buf.position() + 1);
+		long value = 0;
+		int digits = 0;
+		while (buf.hasRemaining()) {
+			byte b = buf.get(buf.position());
+			if (isSpace(b))
+				break;
+			if (b < '0' || b > '9' || value > (Long.MAX_VALUE - 9) / 10)
+				throw error("The " + what + " is not a number.");
+			value = 10 * value + (b - '0');
+			digits++;
+			buf.position(buf.position() + 1);
+		}
+		if (digits == 0)
+			throw error("The " + what + " is not a number.");
+		return negative ? -value : value;
+	} // end of longNumber()
+
+
+	private static boolean isSpace(byte b) {
+		return b == ' ' || b == '\n' || b == '\t' || b == '\r';
+	} // end of isSpace()
+
+
+	private IOException error(String message) {
+		return new IOException("Line " + line + ": " + message);
+	} // end of error()
+
+} // end of class MazeSpec
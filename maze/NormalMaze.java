@@ -14,9 +14,9 @@ import maze.StdDraw;
 public class NormalMaze extends Maze {
 
  	/**
- 	 * Boolean matrix to record visited cells by drawFtPrt(Cell)
+ 	 * Boolean array to record visited cells by drawFtPrt(Cell), by cell index
  	 */
- 	protected boolean isRecorded[][];
+ 	protected boolean isRecorded[];
 
 	
 	public NormalMaze() {
@@ -55,81 +55,71 @@ public class NormalMaze extends Maze {
 	} // end of isOnEdge()
 	
 	
+	@Override
+	public Cell cellAt(int r, int c) {
+		return isIn(r, c) ? cells[index(r, c)] : null;
+	} // end of cellAt()
+	
+	
+	@Override
+	public int neighbour(int idx, int dir) {
+		// no diagonal directions in a rectangular maze
+		if (dir == NORTHEAST || dir == SOUTHWEST)
+			return -1;
+		if (!isIn(idx / sizeC + deltaR[dir], idx % sizeC + deltaC[dir]))
+			return -1;
+		return idx + deltaR[dir] * sizeC + deltaC[dir];
+	} // end of neighbour()
+	
+	
 	@Override
 	public void initMaze(int rs, int cs, int entR, int entC, int exitR, int exitC, List<int[]> tunnelList) {
 		// set up maze constants
 		sizeR = rs;
 		sizeC = cs;
 		sizeTunnel = tunnelList.size();
+		tunnelIndex = TunnelIndex.NONE;
 		
-		// set up map matrix
-		map = new Cell[sizeR][sizeC];
-		for (int i = 0; i < sizeR; i++){
-			for (int j = 0; j < sizeC; j++) {
-				Cell cell = new Cell(i, j);
-				map[i][j] = cell;
-				for (int k = 0; k < 3; k++) {
-					if (k == 1)
-						continue;
-					cell.wall[k] = new Wall();
-				}
-				for (int k = 3; k < NUM_DIR; k++) {
-					if (k == 4)
-						continue;
-					if (isIn(i + deltaR[k], j + deltaC[k])) {
-						Cell neigh = map[i + deltaR[k]][j + deltaC[k]];
-						cell.wall[k] = neigh.wall[oppoDir[k]];
-						cell.neigh[k] = neigh;
-						neigh.neigh[oppoDir[k]] = cell;
-					}
-					else
-						cell.wall[k] = new Wall();
+		// set up the cells in one array, row by row
+		cells = new Cell[sizeR * sizeC];
+		for (int idx = 0; idx < sizeR * sizeC; idx++) {
+			Cell cell = new Cell(idx / sizeC, idx % sizeC);
+			cells[idx] = cell;
+			for (int k = 0; k < 3; k++) {
+				if (k == 1)
+					continue;
+				cell.wall[k] = new Wall();
+			}
+			for (int k = 3; k < NUM_DIR; k++) {
+				if (k == 4)
+					continue;
+				int next = neighbour(idx, k);
+				if (next >= 0) {
+					Cell neigh = cells[next];
+					cell.wall[k] = neigh.wall[oppoDir[k]];
+					cell.neigh[k] = neigh;
+					neigh.neigh[oppoDir[k]] = cell;
 				}
+				else
+					cell.wall[k] = new Wall();
 			}
 		}
 		
 		// set up entrance and exit
 		if (isIn(entR, entC))
-			entrance = map[entR][entC];
+			entrance = cellAt(entR, entC);
 		if (isIn(exitR, exitC))
-			exit = map[exitR][exitC];
+			exit = cellAt(exitR, exitC);
 
- 		// set up recording matrix for validation
- 		isRecorded = new boolean[sizeR][sizeC];
+ 		// set up recording array for validation
+ 		isRecorded = new boolean[cells.length];
 	} // end of initMaze()
 	
 	
 	@Override
 	public boolean isPerfect() {
-		boolean visited[][] = new boolean[sizeR][sizeC];
-		Queue<Cell> queue = new LinkedList<Cell>();
-		
-		queue.add(entrance);
-		
-		while (!queue.isEmpty()) {
-			Cell currCell = queue.poll();
-			visited[currCell.r][currCell.c] = true;
-			int visitedNeigh = 0;
-			for (int i = 0; i < NUM_DIR; i++) {
-				Cell nextCell = currCell.neigh[i];
-				if (!isIn(nextCell) || currCell.wall[i].present)
-					continue;
-				if (visited[nextCell.r][nextCell.c])
-					visitedNeigh += 1; 
-				else
-					queue.add(nextCell);
-			}
-			
-			if (visitedNeigh > 1)
-				return false;
-		}
-		
-		for (int i = 0; i < sizeR; i++)
-			for (int j = 0; j < sizeC; j++)
-				if (!visited[i][j])
-					return false;
-		
-		return true;
+		// union-find on parallel row bands, tunnels included
+		return new PerfectionCheck(this).isPerfect();
 	} // end of isPerfect()
 
 	
@@ -139,12 +129,11 @@ public class NormalMaze extends Maze {
 		if (!isVisu)
 			return;
 		
-		for (int i = 0; i < sizeR; i++)
-			for (int j = 0; j < sizeC; j++)
-				for (int k = 0; k < NUM_DIR; k++) {
-					if (map[i][j].wall[k] != null)
-						map[i][j].wall[k].drawn = false;
-				}
+		for (Cell cell : cells)
+			for (int k = 0; k < NUM_DIR; k++) {
+				if (cell.wall[k] != null)
+					cell.wall[k].drawn = false;
+			}
 		
 		for (int k = 0; k < NUM_DIR; k++) {
 			if (k == 1 || k == 4)
@@ -185,10 +174,11 @@ public class NormalMaze extends Maze {
 		StdDraw.setPenColor(StdDraw.BLACK);
 		for (int r = 0; r < sizeR; r++) {
 			for (int c = 0; c < sizeC; c++) {
-				if (map[r][c].wall[EAST].present && !map[r][c].wall[EAST].drawn) { StdDraw.line(c+1, r, c+1, r+1); map[r][c].wall[EAST].drawn = true; }
-				if (map[r][c].wall[NORTH].present && !map[r][c].wall[NORTH].drawn) { StdDraw.line(c, r+1, c+1, r+1); map[r][c].wall[NORTH].drawn = true; }
-				if (map[r][c].wall[WEST].present && !map[r][c].wall[WEST].drawn) { StdDraw.line(c, r, c, r+1); map[r][c].wall[WEST].drawn = true; }
-				if (map[r][c].wall[SOUTH].present && !map[r][c].wall[SOUTH].drawn) { StdDraw.line(c, r, c+1, r); map[r][c].wall[SOUTH].drawn = true; }
+				Cell cell = cells[r * sizeC + c];
+				if (cell.wall[EAST].present && !cell.wall[EAST].drawn) { StdDraw.line(c+1, r, c+1, r+1); cell.wall[EAST].drawn = true; }
+				if (cell.wall[NORTH].present && !cell.wall[NORTH].drawn) { StdDraw.line(c, r+1, c+1, r+1); cell.wall[NORTH].drawn = true; }
+				if (cell.wall[WEST].present && !cell.wall[WEST].drawn) { StdDraw.line(c, r, c, r+1); cell.wall[WEST].drawn = true; }
+				if (cell.wall[SOUTH].present && !cell.wall[SOUTH].drawn) { StdDraw.line(c, r, c+1, r); cell.wall[SOUTH].drawn = true; }
 			}
 		}
 	} // end of draw()
@@ -196,8 +186,15 @@ public class NormalMaze extends Maze {
 	
 	@Override
 	public void drawFtPrt(Cell cell) {
- 		// record every cell drawn
- 		isRecorded[cell.r][cell.c] = true;
+		// headless solves dropping footprints stop here, before any sink call
+		if (footprintSink == FootprintSink.NONE)
+			return;
+
+		// send every cell drawn to the sink, or record it
+		if (footprintSink != null)
+			footprintSink.footprint(cell);
+		else
+			isRecorded[index(cell)] = true;
 
 		// draw nothing if visualization is switched off
 		if (!isVisu)
@@ -212,42 +209,27 @@ public class NormalMaze extends Maze {
         public boolean validate() {
                 boolean isValid = true;
                 int pathLength = 0;
-                int count = 0;
-
-                int stepCount[][] = new int[sizeR][sizeC];
-                Queue<Cell> queue = new LinkedList<Cell>();
-
-                queue.add(entrance);
-                stepCount[entrance.r][entrance.c] = 1;
 
-                while (!queue.isEmpty()) {
-                        Cell cell = queue.poll();
-                        count++;
-                        int step = stepCount[cell.r][cell.c];
-
-                        for (int i = 0; i < Maze.NUM_DIR; i++) {
-                                Cell next = cell.neigh[i];
-                                if (next != null && !cell.wall[i].present && isRecorded[next.r][next.c] && stepCount[next.r][next.c] == 0) {
-                                        stepCount[next.r][next.c] = step + 1;
-                                        queue.add(next);
-                                }
-                        }
-                }
+                // search the passages between recorded cells, from the entrance even if unrecorded
+                boolean searched[] = isRecorded.clone();
+                searched[index(entrance)] = true;
+                CellGraph graph = new CellGraph(this, searched);
+                DirectionOptimizingBFS bfs = new DirectionOptimizingBFS(graph);
+                int count = bfs.search(graph.entrance, -1);
 
-                if (stepCount[exit.r][exit.c] == 0) {
+                if (!bfs.isVisited(graph.exit)) {
                         isValid = false;
                         System.out.println("[Validation] Exit is not reached.");
                 }
                 else {
-                        pathLength = stepCount[exit.r][exit.c];
+                        for (int idx = graph.exit; idx >= 0; idx = bfs.parent[idx])
+                                pathLength++;
                 }
 
-                for (int i = 0; i < sizeR; i++){
-                        for (int j = 0; j < sizeC; j++) {
-                                if (isValid && isRecorded[i][j] && stepCount[i][j] == 0) {
-                                        isValid = false;
-                                        System.out.println("[Validation] Visited cell not reachable.");
-                                }
+                for (int idx = 0; idx < cells.length; idx++) {
+                        if (isValid && isRecorded[idx] && !bfs.isVisited(idx)) {
+                                isValid = false;
+                                System.out.println("[Validation] Visited cell not reachable.");
                         }
                 }
 
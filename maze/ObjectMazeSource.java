@@ -0,0 +1,79 @@
+package maze;
+
+/**
+ * MazeSource reading the Cell objects of a Maze.
+ */
+public class ObjectMazeSource implements MazeSource {
+
+	/**
+	 * maze read
+	 */
+	public Maze maze;
+
+	private int width;
+
+	/**
+	 * @param maze Maze to read.
+	 */
+	public ObjectMazeSource(Maze maze) {
+		this.maze = maze;
+		width = maze.width();
+	} // end of ObjectMazeSource()
+
+	@Override
+	public int type() {
+		return maze.type;
+	}
+
+	@Override
+	public int sizeR() {
+		return maze.sizeR;
+	}
+
+	@Override
+	public int sizeC() {
+		return maze.sizeC;
+	}
+
+	@Override
+	public int width() {
+		return width;
+	}
+
+	@Override
+	public int entranceR() {
+		return maze.entrance.r;
+	}
+
+	@Override
+	public int entranceC() {
+		return maze.entrance.c;
+	}
+
+	@Override
+	public int exitR() {
+		return maze.exit.r;
+	}
+
+	@Override
+	public int exitC() {
+		return maze.exit.c;
+	}
+
+	@Override
+	public boolean isIn(int r, int c) {
+		return r >= 0 && r < maze.sizeR && c >= 0 && c < width && maze.cellAt(r, c) != null;
+	}
+
+	@Override
+	public boolean isOpen(int r, int c, int dir) {
+		Cell cell = maze.cellAt(r, c);
+		return cell.neigh[dir] != null && !cell.wall[dir].present;
+	}
+
+	@Override
+	public long tunnelTo(int r, int c) {
+		return maze.tunnelIndex.partner(r * width + c);
+	}
+
+} // end of class ObjectMazeSource
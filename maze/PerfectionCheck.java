@@ -0,0 +1,190 @@
+package maze;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Single-pass perfection check with union-find, run on parallel row bands.
+ *
+ * Every passage of the maze is counted and its two cells are unioned. A union of two cells
+ * already in the same set closes a loop, so the check stops there. With no loop and exactly
+ * cells - 1 passages the passages form a spanning tree, which is a perfect maze, so no
+ * separate connectivity pass is needed.
+ *
+ * Rows are cut into bands that are unioned in parallel: a band only unions passages with
+ * both cells inside it, and these touch disjoint parts of the parent array. Passages crossing
+ * from the top row of a band into the next band, and tunnels, are unioned afterwards
+ * in a short sequential merge.
+ *
+ * Cells are numbered by maze.index(), row by row, so a band is a range of maze.cells[].
+ */
+public class PerfectionCheck {
+
+	/**
+	 * bands have at least this many rows
+	 */
+	public final static int MIN_BAND_ROWS = 64;
+
+	// directions whose neighbour is in the same row or the row above
+	private final static int FORWARD[] = { Maze.EAST, Maze.NORTHEAST, Maze.NORTHWEST };
+
+	private Maze maze;
+
+	// union-find forest, parent[i] < 0 for a root of a set of -parent[i] cells
+	private int parent[];
+
+	private AtomicBoolean loop = new AtomicBoolean(false);
+
+	/**
+	 * @param maze Maze to check.
+	 */
+	public PerfectionCheck(Maze maze) {
+		this.maze = maze;
+	} // end of PerfectionCheck()
+
+
+	/**
+	 * Check whether the maze is perfect, using the common pool.
+	 * @return True if perfect.
+	 */
+	public boolean isPerfect() {
+		return isPerfect(ForkJoinPool.commonPool());
+	} // end of isPerfect()
+
+
+	/**
+	 * Check whether the maze is perfect.
+	 * @param pool Pool the bands are checked on.
+	 * @return True if perfect.
+	 */
+	public boolean isPerfect(ForkJoinPool pool) {
+		int sizeR = maze.sizeR;
+		parent = new int[maze.numIndices()];
+		Arrays.fill(parent, -1);
+		loop.set(false);
+
+		int numBands = Math.max(1, Math.min(pool.getParallelism() * 4, sizeR / MIN_BAND_ROWS));
+		Band bands[] = new Band[numBands];
+		for (int i = 0; i < numBands; i++)
+			bands[i] = new Band((int) ((long) sizeR * i / numBands), (int) ((long) sizeR * (i + 1) / numBands));
+
+		pool.invoke(new RecursiveAction() {
+			@Override
+			protected void compute() {
+				invokeAll(bands);
+			}
+		});
+		if (loop.get())
+			return false;
+
+		// merge the bands, then add the tunnels
+		long passages = 0;
+		for (Band band : bands) {
+			passages += band.passages;
+			for (int i = 0; i < band.numCrossing; i++)
+				if (!union(band.crossing[2 * i], band.crossing[2 * i + 1]))
+					return false;
+		}
+
+		return passages == (long) sizeR * maze.sizeC - 1;
+	} // end of isPerfect()
+
+
+	/*
+	 * Union the sets of a and b. Returns false if they were already the same set, i.e. a loop.
+	 */
+	private boolean union(int a, int b) {
+		a = find(a);
+		b = find(b);
+		if (a == b)
+			return false;
+		// union by size
+		if (parent[a] > parent[b]) {
+			int swap = a;
+			a = b;
+			b = swap;
+		}
+		parent[a] += parent[b];
+		parent[b] = a;
+		return true;
+	} // end of union()
+
+
+	/*
+	 * Root of the set of i, with path halving.
+	 */
+	private int find(int i) {
+		while (parent[i] >= 0) {
+			int p = parent[i];
+			if (parent[p] >= 0)
+				parent[i] = parent[p];
+			i = p;
+		}
+		return i;
+	} // end of find()
+
+
+	/*
+	 * Unions the passages inside rows [fromR, toR), and keeps the passages to row toR and
+	 * the tunnels for the merge.
+	 */
+	private class Band extends RecursiveAction {
+		private static final long serialVersionUID = 1L;
+
+		int fromR;
+		int toR;
+		long passages = 0;
+		// pairs of cell indices to union in the merge
+		int crossing[] = new int[16];
+		int numCrossing = 0;
+
+		Band(int fromR, int toR) {
+			this.fromR = fromR;
+			this.toR = toR;
+		}
+
+		@Override
+		protected void compute() {
+			// every row holds sizeC cells
+			int to = toR * maze.sizeC;
+			for (int r = fromR; r < toR; r++) {
+				if (loop.get())
+					return;
+				for (int idx = r * maze.sizeC; idx < (r + 1) * maze.sizeC; idx++) {
+					Cell cell = maze.cells[idx];
+					for (int d : FORWARD) {
+						if (cell.neigh[d] == null || cell.wall[d].present)
+							continue;
+						int next = maze.index(cell.neigh[d]);
+						passages++;
+						if (next < to) {
+							if (!union(idx, next)) {
+								loop.set(true);
+								return;
+							}
+						}
+						else
+							cross(idx, next);
+					}
+					// count every tunnel once, from its lower index end
+					int other = maze.tunnelIndex.partner(idx);
+					if (other > idx) {
+						passages++;
+						cross(idx, other);
+					}
+				}
+			}
+		}
+
+		void cross(int a, int b) {
+			if (2 * numCrossing + 2 > crossing.length)
+				crossing = Arrays.copyOf(crossing, crossing.length * 2);
+			crossing[2 * numCrossing] = a;
+			crossing[2 * numCrossing + 1] = b;
+			numCrossing++;
+		}
+	} // end of class Band
+
+} // end of class PerfectionCheck
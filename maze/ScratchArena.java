@@ -0,0 +1,62 @@
+package maze;
+
+/**
+ * Scratch memory reused from one solve or validation to the next, so that repeated queries
+ * do not allocate matrices of the size of the maze every time.
+ *
+ * An arena holds numbered slots of visited sets and of int arrays, which only grow. What a
+ * slot holds is valid until the slot is asked for again. Solvers keep an arena of their own,
+ * so that their results can still be read after the solve, and other code borrows the arena
+ * of the current thread with get().
+ */
+public class ScratchArena {
+
+	private final static ThreadLocal<ScratchArena> THREAD_ARENA = ThreadLocal.withInitial(ScratchArena::new);
+
+	private VisitedStamps visited[] = new VisitedStamps[0];
+	private int ints[][] = new int[0][];
+
+
+	/**
+	 * @return Arena of the current thread.
+	 */
+	public static ScratchArena get() {
+		return THREAD_ARENA.get();
+	} // end of get()
+
+
+	/**
+	 * @param slot Slot number, from 0.
+	 * @param size Number of cell indices used.
+	 * @return Empty visited set of the slot.
+	 */
+	public VisitedStamps visited(int slot, int size) {
+		if (slot >= visited.length) {
+			VisitedStamps grown[] = new VisitedStamps[slot + 1];
+			System.arraycopy(visited, 0, grown, 0, visited.length);
+			visited = grown;
+		}
+		if (visited[slot] == null)
+			visited[slot] = new VisitedStamps();
+		visited[slot].clear(size);
+		return visited[slot];
+	} // end of visited()
+
+
+	/**
+	 * @param slot Slot number, from 0.
+	 * @param size Minimum length.
+	 * @return Int array of the slot, with unspecified content.
+	 */
+	public int[] ints(int slot, int size) {
+		if (slot >= ints.length) {
+			int grown[][] = new int[slot + 1][];
+			System.arraycopy(ints, 0, grown, 0, ints.length);
+			ints = grown;
+		}
+		if (ints[slot] == null || ints[slot].length < size)
+			ints[slot] = new int[size];
+		return ints[slot];
+	} // end of ints()
+
+} // end of class ScratchArena
@@ -0,0 +1,240 @@
+package maze;
+
+import java.util.Arrays;
+
+/**
+ * Route from a start cell, stored as a packed stream of steps so that it costs 2 or 3 bits
+ * per step instead of a matrix of the size of the maze, and can be validated in O(length).
+ *
+ * A step is a direction of Maze, or TUNNEL for a jump through the tunnel of the current cell.
+ * Normal mazes only use EAST, NORTH, WEST and SOUTH, coded on 2 bits as their position in
+ * SQUARE_DIRS; tunnel mazes add code 4 for TUNNEL, and hex mazes code the direction itself,
+ * both on 3 bits. Steps are packed from the least significant bits of each word, a step
+ * never straddling two words.
+ */
+public class SolutionPath {
+
+	/**
+	 * step through the tunnel of the current cell
+	 */
+	public final static int TUNNEL = Maze.NUM_DIR;
+
+	// directions of a normal or tunnel maze, in the order of their codes
+	private final static int SQUARE_DIRS[] = { Maze.EAST, Maze.NORTH, Maze.WEST, Maze.SOUTH };
+	private final static int SQUARE_TUNNEL = SQUARE_DIRS.length;
+
+	// code of each direction for square mazes, -1 if not used
+	private final static int SQUARE_CODE[] = { 0, -1, 1, 2, -1, 3 };
+
+	public int type;
+	public int bitsPerStep;
+	private int stepsPerWord;
+
+	public int startR;
+	public int startC;
+
+	/**
+	 * packed steps, see class comment
+	 */
+	public long words[] = new long[4];
+	public long numSteps = 0;
+
+
+	/**
+	 * @param type Type of the maze the route is in, one of Maze.NORMAL, Maze.TUNNEL or Maze.HEX.
+	 */
+	public SolutionPath(int type) {
+		this.type = type;
+		bitsPerStep = type == Maze.NORMAL ? 2 : 3;
+		stepsPerWord = 64 / bitsPerStep;
+	} // end of SolutionPath()
+
+
+	/**
+	 * Build the route along consecutive cells.
+	 * @param maze Maze the cells are in.
+	 * @param cells Indices of the cells, see Maze.index().
+	 * @param length Number of cells.
+	 * @return Route from the first cell to the last.
+	 * @throws IllegalArgumentException If two consecutive cells are not neighbours or tunnel ends.
+	 */
+	public static SolutionPath of(Maze maze, int cells[], int length) {
+		SolutionPath path = new SolutionPath(maze.type);
+		if (length == 0)
+			return path;
+		Cell cell = maze.cellAt(cells[0]);
+		path.start(cell.r, cell.c);
+		for (int i = 1; i < length; i++) {
+			Cell next = maze.cellAt(cells[i]);
+			path.stepTo(cell, next);
+			cell = next;
+		}
+		return path;
+	} // end of of()
+
+
+	/**
+	 * Build the route along consecutive cells, with their indices held in longs.
+	 * @param cells Indices of the cells, see Maze.index(), not the r * width + c of a MazeSource.
+	 * @see #of(Maze, int[], int)
+	 */
+	public static SolutionPath of(Maze maze, long cells[]) {
+		SolutionPath path = new SolutionPath(maze.type);
+		if (cells.length == 0)
+			return path;
+		Cell cell = maze.cellAt(Math.toIntExact(cells[0]));
+		path.start(cell.r, cell.c);
+		for (int i = 1; i < cells.length; i++) {
+			Cell next = maze.cellAt(Math.toIntExact(cells[i]));
+			path.stepTo(cell, next);
+			cell = next;
+		}
+		return path;
+	} // end of of()
+
+
+	/**
+	 * Start a new route, forgetting the previous one.
+	 * @param r Row of the first cell.
+	 * @param c Column of the first cell.
+	 */
+	public void start(int r, int c) {
+		startR = r;
+		startC = c;
+		numSteps = 0;
+	} // end of start()
+
+
+	/**
+	 * Append a step.
+	 * @param step Direction moved along, or TUNNEL.
+	 */
+	public void step(int step) {
+		int code = encode(step);
+		int word = (int) (numSteps / stepsPerWord);
+		int shift = (int) (numSteps % stepsPerWord) * bitsPerStep;
+		if (word == words.length)
+			words = Arrays.copyOf(words, words.length * 2);
+		if (shift == 0)
+			words[word] = 0;
+		words[word] |= (long) code << shift;
+		numSteps++;
+	} // end of step()
+
+
+	/**
+	 * Append the step from a cell to a neighbour through an open passage, or to the other end
+	 * of its tunnel, which may be a walled-off neighbour.
+	 * @param from Current cell.
+	 * @param to Next cell.
+	 * @throws IllegalArgumentException If the cells are not neighbours or tunnel ends.
+	 */
+	public void stepTo(Cell from, Cell to) {
+		for (int dir = 0; dir < Maze.NUM_DIR; dir++)
+			if (from.neigh[dir] == to && !from.wall[dir].present) {
+				step(dir);
+				return;
+			}
+		if (from.tunnelTo == to) {
+			step(TUNNEL);
+			return;
+		}
+		throw new IllegalArgumentException("(" + to.r + ", " + to.c + ") cannot be reached from (" + from.r + ", " + from.c + ").");
+	} // end of stepTo()
+
+
+	/**
+	 * @param i Index of a step, from 0 to numSteps - 1.
+	 * @return Direction of the step, or TUNNEL.
+	 */
+	public int step(long i) {
+		long word = words[(int) (i / stepsPerWord)];
+		int code = (int) (word >>> ((i % stepsPerWord) * bitsPerStep)) & ((1 << bitsPerStep) - 1);
+		return decode(code);
+	} // end of step()
+
+
+	/**
+	 * @return Bytes used by the packed steps.
+	 */
+	public long sizeInBytes() {
+		return 8 * ((numSteps + stepsPerWord - 1) / stepsPerWord);
+	} // end of sizeInBytes()
+
+
+	/**
+	 * Check that the route goes from the entrance to the exit of a maze, through open passages
+	 * and tunnels only, walking it in O(numSteps) without touching the rest of the maze.
+	 * @param maze Maze the route is in.
+	 * @return True if valid.
+	 */
+	public boolean validate(Maze maze) {
+		String problem = problem(maze);
+		if (problem != null) {
+			System.out.println("[Validation] " + problem);
+			return false;
+		}
+		System.out.println("[Validation] Path length of the solution = " + (numSteps + 1));
+		return true;
+	} // end of validate()
+
+
+	/**
+	 * Validate without printing anything, in O(numSteps).
+	 * @param maze Maze the route is in.
+	 * @return Why the route is not valid, null if it is.
+	 */
+	public String problem(Maze maze) {
+		if (maze.cellAt(startR, startC) != maze.entrance)
+			return "Path does not start at the entrance.";
+		Cell cell = maze.entrance;
+		for (long i = 0; i < numSteps; i++) {
+			int step = step(i);
+			Cell next;
+			if (step == TUNNEL)
+				next = cell.tunnelTo;
+			else
+				next = cell.neigh[step] != null && !cell.wall[step].present ? cell.neigh[step] : null;
+			if (next == null)
+				return "Step " + i + " from (" + cell.r + ", " + cell.c + ") goes through a wall.";
+			cell = next;
+		}
+		if (cell != maze.exit)
+			return "Exit is not reached.";
+		return null;
+	} // end of problem()
+
+
+	/**
+	 * Walk the route on a maze and draw a footprint on every cell passed.
+	 * @param maze Maze the route is in.
+	 */
+	public void replay(Maze maze) {
+		Cell cell = maze.cellAt(startR, startC);
+		maze.drawFtPrt(cell);
+		for (long i = 0; i < numSteps; i++) {
+			int step = step(i);
+			cell = step == TUNNEL ? cell.tunnelTo : cell.neigh[step];
+			maze.drawFtPrt(cell);
+		}
+	} // end of replay()
+
+
+	private int encode(int step) {
+		if (type == Maze.HEX)
+			return step;
+		if (step == TUNNEL && type == Maze.TUNNEL)
+			return SQUARE_TUNNEL;
+		if (step < Maze.NUM_DIR && SQUARE_CODE[step] >= 0)
+			return SQUARE_CODE[step];
+		throw new IllegalArgumentException("Step " + step + " does not exist in this type of maze.");
+	} // end of encode()
+
+
+	private int decode(int code) {
+		if (type == Maze.HEX)
+			return code;
+		return code == SQUARE_TUNNEL ? TUNNEL : SQUARE_DIRS[code];
+	} // end of decode()
+
+} // end of class SolutionPath
@@ -0,0 +1,82 @@
+package maze;
+
+/**
+ * Tunnels of a maze in primitive arrays: tunnel i, its ID, joins the cells of indices
+ * ends[2i] and ends[2i + 1], and every cell knows the ID of its tunnel, so that the other end
+ * of a cell's tunnel is found in O(1) and tunnels are enumerated in O(number of tunnels).
+ *
+ * Cell (r, c) has index r * width + c, width being Maze.width().
+ */
+public class TunnelIndex {
+
+	/**
+	 * index of a maze without tunnels
+	 */
+	public final static TunnelIndex NONE = new TunnelIndex();
+
+	public int width;
+	public int numTunnels = 0;
+
+	/**
+	 * cell indices of the two ends of every tunnel
+	 */
+	public int ends[] = new int[0];
+
+	// 1 + ID of the tunnel of every cell, 0 if none, null if there is no tunnel at all
+	private int idOf[];
+
+
+	private TunnelIndex() {
+	} // end of TunnelIndex()
+
+
+	/**
+	 * @param sizeR Number of rows of the maze.
+	 * @param width Number of columns of the cell coordinates, see Maze.width().
+	 * @param tunnels Tunnel i goes from {tunnels[4i], tunnels[4i + 1]} to {tunnels[4i + 2], tunnels[4i + 3]}.
+	 * @param numTunnels Number of tunnels.
+	 * @throws IllegalArgumentException If an end is out of the maze, or a cell is the end of two
+	 *             tunnels or both ends of one.
+	 */
+	public TunnelIndex(int sizeR, int width, int tunnels[], int numTunnels) {
+		this.width = width;
+		this.numTunnels = numTunnels;
+		ends = new int[2 * numTunnels];
+		if (numTunnels == 0)
+			return;
+		idOf = new int[sizeR * width];
+		for (int i = 0; i < 2 * numTunnels; i++) {
+			int r = tunnels[2 * i];
+			int c = tunnels[2 * i + 1];
+			if (r < 0 || r >= sizeR || c < 0 || c >= width)
+				throw new IllegalArgumentException("Tunnel end (" + r + ", " + c + ") is outside the maze.");
+			int idx = r * width + c;
+			if (idOf[idx] != 0)
+				throw new IllegalArgumentException("Cell (" + r + ", " + c + ") is already the end of tunnel " + (idOf[idx] - 1) + ".");
+			idOf[idx] = i / 2 + 1;
+			ends[i] = idx;
+		}
+	} // end of TunnelIndex()
+
+
+	/**
+	 * @param idx Index of a cell.
+	 * @return ID of the tunnel of the cell, -1 if it has none.
+	 */
+	public int id(int idx) {
+		return idOf == null ? -1 : idOf[idx] - 1;
+	} // end of id()
+
+
+	/**
+	 * @param idx Index of a cell.
+	 * @return Index of the other end of the tunnel of the cell, -1 if it has none.
+	 */
+	public int partner(int idx) {
+		if (idOf == null || idOf[idx] == 0)
+			return -1;
+		int id = idOf[idx] - 1;
+		return ends[2 * id] == idx ? ends[2 * id + 1] : ends[2 * id];
+	} // end of partner()
+
+} // end of class TunnelIndex
@@ -0,0 +1,179 @@
+package maze;
+
+/**
+ * Footprint sink validating the solution while the solver runs.
+ *
+ * Every new footprint is unioned with the footprints already recorded on its open neighbours
+ * and tunnel end, keeping the number of connected groups of footprints. As Maze.validate()
+ * starts its search from the entrance whether or not it has a footprint, the entrance is
+ * recorded from the start. The solution is valid when the exit has a footprint and all
+ * footprints form one group, which is what Maze.validate() checks, so problem() only reads
+ * the counters kept.
+ *
+ * Cells are kept by maze.index(), and their passages are read from a CellGraph of the maze
+ * built with the sink, the walls not changing while a solver runs.
+ */
+public class ValidatingFootprintSink implements FootprintSink {
+
+	private Maze maze;
+
+	// open passages and tunnel ends, CellGraph.SLOTS per cell
+	private int adj[];
+
+	// union-find forest, 0 for a cell with no footprint, otherwise 1 + index of the parent
+	private int parent[];
+	// number of cells of a group, at its root
+	private int size[];
+
+	/**
+	 * number of distinct cells with a footprint, the entrance included
+	 */
+	public int count = 0;
+
+	/**
+	 * number of groups of footprints connected through open passages and tunnels
+	 */
+	public int groups = 0;
+
+
+	/**
+	 * @param maze Maze whose footprints are validated.
+	 */
+	public ValidatingFootprintSink(Maze maze) {
+		this.maze = maze;
+		adj = new CellGraph(maze).adj;
+		parent = new int[maze.numIndices()];
+		size = new int[maze.numIndices()];
+		footprint(maze.entrance);
+	} // end of ValidatingFootprintSink()
+
+
+	@Override
+	public void footprint(Cell cell) {
+		int x = maze.index(cell);
+		if (parent[x] != 0)
+			return;
+		parent[x] = x + 1;
+		size[x] = 1;
+		count++;
+		groups++;
+
+		// open neighbours and the tunnel end, if any
+		for (int j = x * CellGraph.SLOTS; j < x * CellGraph.SLOTS + CellGraph.SLOTS; j++) {
+			if (adj[j] >= 0)
+				union(x, adj[j]);
+		}
+	} // end of footprint()
+
+
+	/**
+	 * Show the validation result, as Maze.validate() does. Only the path length printed for a
+	 * valid solution takes a pass, over the footprints rather than the maze.
+	 * @return True if the footprints join the entrance to the exit and none is cut off from them.
+	 */
+	public boolean validate() {
+		String problem = problem();
+		if (problem != null) {
+			System.out.println("[Validation] " + problem);
+			return false;
+		}
+		System.out.println("[Validation] Number of cells visited = " + count);
+		System.out.println("[Validation] Path length of the solution = " + pathLength());
+		return true;
+	} // end of validate()
+
+
+	/**
+	 * Validate without printing anything, in O(1).
+	 * @return Why the footprints are not valid, null if they are.
+	 */
+	public String problem() {
+		if (!isRecorded(maze.exit) || find(index(maze.entrance)) != find(index(maze.exit)))
+			return "Exit is not reached.";
+		if (groups != 1)
+			return "Visited cell not reachable.";
+		return null;
+	} // end of problem()
+
+
+	/**
+	 * @param cell Cell of the maze.
+	 * @return True if the cell has a footprint.
+	 */
+	public boolean isRecorded(Cell cell) {
+		return parent[index(cell)] != 0;
+	} // end of isRecorded()
+
+
+	private int index(Cell cell) {
+		return maze.index(cell);
+	} // end of index()
+
+
+	/*
+	 * Number of cells on the shortest route from the entrance to the exit, searching breadth
+	 * first through the footprints only, which must be valid.
+	 */
+	private int pathLength() {
+		ScratchArena arena = ScratchArena.get();
+		VisitedStamps reached = arena.visited(0, maze.numIndices());
+		int stepCount[] = arena.ints(0, maze.numIndices());
+		int queue[] = arena.ints(1, count);
+		int head = 0, tail = 0;
+		int exit = index(maze.exit);
+
+		queue[tail++] = index(maze.entrance);
+		reached.add(queue[0]);
+		stepCount[queue[0]] = 1;
+
+		while (head < tail) {
+			int idx = queue[head++];
+			if (idx == exit)
+				break;
+
+			// open neighbours then the tunnel end, if any
+			for (int j = idx * CellGraph.SLOTS; j < idx * CellGraph.SLOTS + CellGraph.SLOTS; j++) {
+				int next = adj[j];
+				if (next >= 0 && parent[next] != 0 && !reached.contains(next)) {
+					reached.add(next);
+					stepCount[next] = stepCount[idx] + 1;
+					queue[tail++] = next;
+				}
+			}
+		}
+		return stepCount[exit];
+	} // end of pathLength()
+
+
+	/*
+	 * Union the group of x with the group of y if y has a footprint.
+	 */
+	private void union(int x, int y) {
+		if (parent[y] == 0)
+			return;
+		int a = find(x);
+		int b = find(y);
+		if (a == b)
+			return;
+		if (size[a] < size[b]) {
+			int t = a;
+			a = b;
+			b = t;
+		}
+		parent[b] = a + 1;
+		size[a] += size[b];
+		groups--;
+	} // end of union()
+
+
+	// root of the group of x, halving the path on the way
+	private int find(int x) {
+		while (parent[x] - 1 != x) {
+			int p = parent[x] - 1;
+			parent[x] = parent[p];
+			x = p;
+		}
+		return x;
+	} // end of find()
+
+} // end of class ValidatingFootprintSink
@@ -0,0 +1,48 @@
+package maze;
+
+import java.util.Arrays;
+
+/**
+ * Set of visited cell indices that is cleared in O(1): a cell is in the set when its stamp
+ * equals the current epoch, and clear() moves to the next epoch instead of resetting every
+ * stamp. The stamps are only reset when the epoch wraps around, once in 2^32 clears.
+ */
+public class VisitedStamps {
+
+	private int stamps[] = new int[0];
+	private int epoch = 0;
+
+
+	/**
+	 * Empty the set and make room for indices 0 to size - 1.
+	 * @param size Number of indices used until the next clear().
+	 */
+	public void clear(int size) {
+		if (stamps.length < size) {
+			stamps = new int[size];
+			epoch = 0;
+		}
+		if (++epoch == 0) {
+			Arrays.fill(stamps, 0);
+			epoch = 1;
+		}
+	} // end of clear()
+
+
+	/**
+	 * @param i Index of a cell.
+	 * @return True if the cell was added since the last clear().
+	 */
+	public boolean contains(int i) {
+		return stamps[i] == epoch;
+	} // end of contains()
+
+
+	/**
+	 * @param i Index of a cell to add.
+	 */
+	public void add(int i) {
+		stamps[i] = epoch;
+	} // end of add()
+
+} // end of class VisitedStamps
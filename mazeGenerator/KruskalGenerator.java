@@ -7,6 +7,25 @@ import maze.Maze;
 
 public class KruskalGenerator implements MazeGenerator 
 {
+	// Source of every random choice
+	Random rand;
+	
+	public KruskalGenerator()
+	{
+		rand = new Random();
+	} // end of KruskalGenerator()
+	
+	
+	/**
+	 * Generator making the same maze for the same seed, maze and tunnels.
+	 * @param seed Seed of the random choices.
+	 */
+	public KruskalGenerator(long seed)
+	{
+		rand = new Random(seed);
+	} // end of KruskalGenerator()
+	
+	
 	 /** 
      * Generate a maze using Kruskal's algorithm.
      * 
@@ -62,8 +81,6 @@ public class KruskalGenerator implements MazeGenerator
 		
 		int row, column, direction;
 		
-		Random rand = new Random();
-		
 		// Create stack of edges from each wall connecting two cells
 		for(int i = 0; i < sizeR; i++)
 		{
@@ -107,11 +124,11 @@ public class KruskalGenerator implements MazeGenerator
 			
 			Cell current = new Cell();
 			// Get one of the two cells connected by the edge
-			current = maze.map[row][column];
+			current = maze.cellAt(row, column);
 			
 			Cell next = new Cell();
 			// Get the other cell connected by the same edge
-			next = maze.map[row + maze.deltaR[direction]][column + maze.deltaC[direction]];
+			next = maze.cellAt(row + maze.deltaR[direction], column + maze.deltaC[direction]);
 			
 			Cell previous = new Cell();
 			
@@ -137,8 +154,6 @@ public class KruskalGenerator implements MazeGenerator
 		
 		int row, column, direction;
 		
-		Random rand = new Random();
-		
 		// Create stack of edges from each wall connecting two cells
 		for(int i = 0; i < sizeR; i++)
 		{
@@ -179,10 +194,10 @@ public class KruskalGenerator implements MazeGenerator
 			direction = edge.getDirection();
 			
 			Cell current = new Cell();
-			current = maze.map[row][column];
+			current = maze.cellAt(row, column);
 			
 			Cell next = new Cell();
-			next = maze.map[row + maze.deltaR[direction]][column + maze.deltaC[direction]];
+			next = maze.cellAt(row + maze.deltaR[direction], column + maze.deltaC[direction]);
 			
 			Cell previous = new Cell();
 
@@ -237,7 +252,7 @@ public class KruskalGenerator implements MazeGenerator
 						if(cell.wall[i].present != true)
 						{
 							Cell next = new Cell();
-							next = maze.map[cell.r + maze.deltaR[i]][cell.c + maze.deltaC[i]];
+							next = maze.cellAt(cell.r + maze.deltaR[i], cell.c + maze.deltaC[i]);
 							
 							// Repeat the process until we are sure that the cells being connected aren't in the same set
 							if(checkEdgeExistance(maze, next, check, cell) == false)
@@ -263,7 +278,7 @@ public class KruskalGenerator implements MazeGenerator
 						if(cell.wall[i].present != true)
 						{
 							Cell next = new Cell();
-							next = maze.map[cell.r + maze.deltaR[i]][cell.c + maze.deltaC[i]];
+							next = maze.cellAt(cell.r + maze.deltaR[i], cell.c + maze.deltaC[i]);
 							
 							// Repeat the process until we are sure that the cells being connected aren't in the same set
 							if(checkEdgeExistance(maze, next, check, cell) == false)
@@ -278,14 +293,14 @@ public class KruskalGenerator implements MazeGenerator
 		else if (maze.type == maze.TUNNEL)
 		{
 			// Gets the cell at end of the tunnel
-			if (maze.map[cell.r][cell.c].tunnelTo != null)
+			if (maze.cellAt(cell.r, cell.c).tunnelTo != null)
 			{
 				// Checks if the next cell is not the same as the previous cell so the traversing 
 				// doesn't go back to a cell that has been already checked
 				if(cell.tunnelTo != previous)
 				{
 					Cell next = new Cell();
-					next = maze.map[cell.r][cell.c].tunnelTo;
+					next = maze.cellAt(cell.r, cell.c).tunnelTo;
 					
 					// Repeat the process until we are sure that the cells being connected aren't in the same set
 					if(checkEdgeExistance(maze, next, check, cell) == false)
@@ -312,7 +327,7 @@ public class KruskalGenerator implements MazeGenerator
 						if(cell.wall[i].present != true)
 						{
 							Cell next = new Cell();
-							next = maze.map[cell.r + maze.deltaR[i]][cell.c + maze.deltaC[i]];
+							next = maze.cellAt(cell.r + maze.deltaR[i], cell.c + maze.deltaC[i]);
 							
 							// Repeat the process until we are sure that the cells being connected aren't in the same set
 							if(checkEdgeExistance(maze, next, check, cell) == false)
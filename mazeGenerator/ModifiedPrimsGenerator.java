@@ -12,6 +12,25 @@ import maze.Maze;
 
 public class ModifiedPrimsGenerator implements MazeGenerator 
 {
+	// Source of every random choice
+	Random rand;
+	
+	public ModifiedPrimsGenerator()
+	{
+		rand = new Random();
+	} // end of ModifiedPrimsGenerator()
+	
+	
+	/**
+	 * Generator making the same maze for the same seed, maze and tunnels.
+	 * @param seed Seed of the random choices.
+	 */
+	public ModifiedPrimsGenerator(long seed)
+	{
+		rand = new Random(seed);
+	} // end of ModifiedPrimsGenerator()
+	
+	
 	 /** 
      * Generate a maze using the modified Prim's algorithm 
      * 
@@ -68,8 +87,6 @@ public class ModifiedPrimsGenerator implements MazeGenerator
 		int dir = 0;
 		int random;
 		
-		Random rand = new Random();
-		
 		// Random row and column number is generated and assigned to their corresponding variables
 		currentR = rand.nextInt(sizeR);
 		currentC = rand.nextInt(sizeC);		
@@ -85,7 +102,7 @@ public class ModifiedPrimsGenerator implements MazeGenerator
 		Cell cell = new Cell(currentR, currentC);
 		
 		// Cell is reassigned position so that details of each neighboring walls are present as well
-		cell = maze.map[currentR][currentC]; 
+		cell = maze.cellAt(currentR, currentC); 
 		
 		// Add the current cell to setZ
 		setZ.add(cell);
@@ -117,7 +134,7 @@ public class ModifiedPrimsGenerator implements MazeGenerator
 			dir = 0;
 			
 			// Random number generated based on the frontier size
-			random = (int)(Math.random()*frontier.size());
+			random = (int)(rand.nextDouble()*frontier.size());
 			
 			// Random cell chosen from the frontier set using the random number generated earlier
 			cell = frontier.get(random);
@@ -125,7 +142,7 @@ public class ModifiedPrimsGenerator implements MazeGenerator
 			do
 			{	
 				// Generate a random direction
-				dir = (int)  (Math.random()*maze.NUM_DIR);
+				dir = (int)  (rand.nextDouble()*maze.NUM_DIR);
 				
 				/* if the setZ contains the neighbor of the cell in the direction generated
 				 * then remove the cell from the frontier, carve a path between the cell and the neighbor
@@ -158,13 +175,11 @@ public class ModifiedPrimsGenerator implements MazeGenerator
 		int dir = 0;
 		int random;
 		
-		Random rand = new Random();
-		
 		// Random row and column number is generated and assigned to their corresponding variables
 		do
 		{
 			currentR = rand.nextInt(sizeR);
-			currentC = ((sizeR + 1) / 2) + (int)(Math.random() * ((sizeC + (sizeR + 1) / 2) - ((sizeR + 1) / 2)));
+			currentC = ((sizeR + 1) / 2) + (int)(rand.nextDouble() * ((sizeC + (sizeR + 1) / 2) - ((sizeR + 1) / 2)));
 		}while(!isInHex(currentR, currentC, maze));
 		
 		// The frontier set that will store the valid neighbors of the current cell at each iteration
@@ -178,7 +193,7 @@ public class ModifiedPrimsGenerator implements MazeGenerator
 		Cell cell = new Cell(currentR, currentC);
 		
 		// Cell is reassigned position so that details of each neighboring walls are present as well
-		cell = maze.map[currentR][currentC]; 
+		cell = maze.cellAt(currentR, currentC); 
 		
 		// Add the current cell to setZ
 		setZ.add(cell);
@@ -206,7 +221,7 @@ public class ModifiedPrimsGenerator implements MazeGenerator
 			dir = 0;
 			
 			// Random number generated based on the frontier size
-			random = (int)(Math.random()*frontier.size());
+			random = (int)(rand.nextDouble()*frontier.size());
 			
 			// Random cell chosen from the frontier set using the random number generated earlier
 			cell = frontier.get(random);
@@ -214,7 +229,7 @@ public class ModifiedPrimsGenerator implements MazeGenerator
 			do
 			{	
 				// Generate a random direction
-				dir = (int)  (Math.random()*maze.NUM_DIR);
+				dir = (int)  (rand.nextDouble()*maze.NUM_DIR);
 				
 				/* if the setZ contains the neighbor of the cell in the direction generated
 				 * then remove the cell from the frontier, carve a path between the cell and the neighbor
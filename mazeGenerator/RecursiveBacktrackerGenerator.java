@@ -9,6 +9,25 @@ import maze.Wall;
 
 public class RecursiveBacktrackerGenerator implements MazeGenerator 
 {
+	// Source of every random choice
+	Random rand;
+	
+	public RecursiveBacktrackerGenerator()
+	{
+		rand = new Random();
+	} // end of RecursiveBacktrackerGenerator()
+	
+	
+	/**
+	 * Generator making the same maze for the same seed, maze and tunnels.
+	 * @param seed Seed of the random choices.
+	 */
+	public RecursiveBacktrackerGenerator(long seed)
+	{
+		rand = new Random(seed);
+	} // end of RecursiveBacktrackerGenerator()
+	
+	
 	/** 
      * Generate a maze using the recursive backtracker algorithm.
      * 
@@ -60,8 +79,6 @@ public class RecursiveBacktrackerGenerator implements MazeGenerator
 		// A boolean array is created to check visited status for each cell
 		boolean visited[][] = new boolean[sizeR][sizeC];
 		
-		Random rand = new Random();
-		
 		// Random row and column number is generated and assigned to their corresponding variables
 		currentR = rand.nextInt(sizeR);
 		currentC = rand.nextInt(sizeC);
@@ -85,16 +102,16 @@ public class RecursiveBacktrackerGenerator implements MazeGenerator
 			 if (maze.type == maze.TUNNEL)
 			 {
 				 // Checks if the cell has a tunnel..
-				 if (maze.map[cell.r][cell.c].tunnelTo != null)
+				 if (maze.cellAt(cell.r, cell.c).tunnelTo != null)
 			     {
 					 // Create a temporary cell with the coordinates of the exit of the tunnel
-					 Cell temp = maze.map[cell.r][cell.c].tunnelTo;
+					 Cell temp = maze.cellAt(cell.r, cell.c).tunnelTo;
 					 
 					 // If the exit of the tunnel is not visited
 					 if (!visited[temp.r][temp.c])
 					 {
 						 // If not then the current cell would be the cell at the other end of the tunnel
-						 cell = maze.map[cell.r][cell.c].tunnelTo;
+						 cell = maze.cellAt(cell.r, cell.c).tunnelTo;
 						 // Set the visited status of the cell at the end of the tunnel to true
 						 visited[cell.r][cell.c] = true;
 					 }
@@ -157,14 +174,12 @@ public class RecursiveBacktrackerGenerator implements MazeGenerator
 		// A boolean array is created to check visited status for each cell
 		boolean visited[][] = new boolean[sizeR][sizeC + (sizeR + 1) / 2];
 		
-		Random rand = new Random();
-		
 		// Random row and column number is generated and assigned to their corresponding variables
 		// The do-while loop ensures the cell generated exists only inside the maze
 		do
 		{
 			currentR = rand.nextInt(sizeR);
-			currentC = ((sizeR + 1) / 2) + (int)(Math.random() * ((sizeC + (sizeR + 1) / 2) - ((sizeR + 1) / 2)));
+			currentC = ((sizeR + 1) / 2) + (int)(rand.nextDouble() * ((sizeC + (sizeR + 1) / 2) - ((sizeR + 1) / 2)));
 		} while(!isInHex(currentR, currentC, maze));
 		
 		// Starting cell created by passing in the starting row and column coordinates
@@ -262,8 +277,6 @@ public class RecursiveBacktrackerGenerator implements MazeGenerator
      * */
 	private void nextCell (Maze maze, Cell cell, LinkedList<Cell> stack, Cell neigh, int[] neighbours, int freeNeighbourCount)
 	{
-		Random rand = new Random();
-		
 		if (maze.type == maze.NORMAL || maze.type == maze.TUNNEL)
 		{
 			// Randomly choose a cell from the neighbours array and carve a path between the current cell
@@ -272,28 +285,28 @@ public class RecursiveBacktrackerGenerator implements MazeGenerator
 			 switch (neighbours[rand.nextInt(freeNeighbourCount)]-1) 
 			 {			
 				 case Maze.NORTH:				 
-					 neigh = maze.map[cell.r + maze.deltaR[maze.NORTH]][cell.c + maze.deltaC[maze.NORTH]];
+					 neigh = maze.cellAt(cell.r + maze.deltaR[maze.NORTH], cell.c + maze.deltaC[maze.NORTH]);
 					 cell.wall[maze.NORTH] = neigh.wall[maze.oppoDir[maze.NORTH]];
 					 cell.wall[maze.NORTH].present = false;			
 					 cell.r = neigh.r;				 
 				 break;
 				
 				 case Maze.EAST:				
-					 neigh = maze.map[cell.r + maze.deltaR[maze.EAST]][cell.c + maze.deltaC[maze.EAST]];
+					 neigh = maze.cellAt(cell.r + maze.deltaR[maze.EAST], cell.c + maze.deltaC[maze.EAST]);
 					 cell.wall[maze.EAST] = neigh.wall[maze.oppoDir[maze.EAST]];
 					 cell.wall[maze.EAST].present = false;						 
 					 cell.c = neigh.c;					
 				 break;
 				
 				 case Maze.SOUTH:					
-					 neigh = maze.map[cell.r + maze.deltaR[maze.SOUTH]][cell.c + maze.deltaC[maze.SOUTH]];
+					 neigh = maze.cellAt(cell.r + maze.deltaR[maze.SOUTH], cell.c + maze.deltaC[maze.SOUTH]);
 					 cell.wall[maze.SOUTH] = neigh.wall[maze.oppoDir[maze.SOUTH]];
 					 cell.wall[maze.SOUTH].present = false;					 
 					 cell.r = neigh.r;					 
 				 break;
 				 
 				 case Maze.WEST:					 
-					 neigh = maze.map[cell.r + maze.deltaR[maze.WEST]][cell.c + maze.deltaC[maze.WEST]];
+					 neigh = maze.cellAt(cell.r + maze.deltaR[maze.WEST], cell.c + maze.deltaC[maze.WEST]);
 					 cell.wall[maze.WEST] = neigh.wall[maze.oppoDir[maze.WEST]];
 					 cell.wall[maze.WEST].present = false;					 
 					 cell.c = neigh.c;					
@@ -308,7 +321,7 @@ public class RecursiveBacktrackerGenerator implements MazeGenerator
 			switch (neighbours[rand.nextInt(freeNeighbourCount)]-1) 
 			 {			
 				 case Maze.NORTHEAST:				 
-					 neigh = maze.map[cell.r + maze.deltaR[maze.NORTHEAST]][cell.c + maze.deltaC[maze.NORTHEAST]];
+					 neigh = maze.cellAt(cell.r + maze.deltaR[maze.NORTHEAST], cell.c + maze.deltaC[maze.NORTHEAST]);
 					 cell.wall[maze.NORTHEAST] = neigh.wall[maze.oppoDir[maze.NORTHEAST]];
 					 cell.wall[maze.NORTHEAST].present = false;			
 					 cell.r++;
@@ -316,28 +329,28 @@ public class RecursiveBacktrackerGenerator implements MazeGenerator
 				 break;
 				 
 				 case Maze.NORTHWEST:				 
-					 neigh = maze.map[cell.r + maze.deltaR[maze.NORTHWEST]][cell.c + maze.deltaC[maze.NORTHWEST]];
+					 neigh = maze.cellAt(cell.r + maze.deltaR[maze.NORTHWEST], cell.c + maze.deltaC[maze.NORTHWEST]);
 					 cell.wall[maze.NORTHWEST] = neigh.wall[maze.oppoDir[maze.NORTHWEST]];
 					 cell.wall[maze.NORTHWEST].present = false;			
 					 cell.r++;
 				 break;
 				
 				 case Maze.EAST:				
-					 neigh = maze.map[cell.r + maze.deltaR[maze.EAST]][cell.c + maze.deltaC[maze.EAST]];
+					 neigh = maze.cellAt(cell.r + maze.deltaR[maze.EAST], cell.c + maze.deltaC[maze.EAST]);
 					 cell.wall[maze.EAST] = neigh.wall[maze.oppoDir[maze.EAST]];
 					 cell.wall[maze.EAST].present = false;						 
 					 cell.c++;					
 				 break;
 				
 				 case Maze.SOUTHEAST:					
-					 neigh = maze.map[cell.r + maze.deltaR[maze.SOUTHEAST]][cell.c + maze.deltaC[maze.SOUTHEAST]];
+					 neigh = maze.cellAt(cell.r + maze.deltaR[maze.SOUTHEAST], cell.c + maze.deltaC[maze.SOUTHEAST]);
 					 cell.wall[maze.SOUTHEAST] = neigh.wall[maze.oppoDir[maze.SOUTHEAST]];
 					 cell.wall[maze.SOUTHEAST].present = false;					 
 					 cell.r--;
 				 break;
 				 
 				 case Maze.SOUTHWEST:					
-					 neigh = maze.map[cell.r + maze.deltaR[maze.SOUTHWEST]][cell.c + maze.deltaC[maze.SOUTHWEST]];
+					 neigh = maze.cellAt(cell.r + maze.deltaR[maze.SOUTHWEST], cell.c + maze.deltaC[maze.SOUTHWEST]);
 					 cell.wall[maze.SOUTHWEST] = neigh.wall[maze.oppoDir[maze.SOUTHWEST]];
 					 cell.wall[maze.SOUTHWEST].present = false;					 
 					 cell.r--;
@@ -345,7 +358,7 @@ public class RecursiveBacktrackerGenerator implements MazeGenerator
 				 break;
 				 
 				 case Maze.WEST:					 
-					 neigh = maze.map[cell.r + maze.deltaR[maze.WEST]][cell.c + maze.deltaC[maze.WEST]];
+					 neigh = maze.cellAt(cell.r + maze.deltaR[maze.WEST], cell.c + maze.deltaC[maze.WEST]);
 					 cell.wall[maze.WEST] = neigh.wall[maze.oppoDir[maze.WEST]];
 					 cell.wall[maze.WEST].present = false;					 
 					 cell.c--;
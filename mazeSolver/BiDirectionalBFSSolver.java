@@ -5,18 +5,24 @@ import java.util.Random;
 
 import maze.Cell;
 import maze.Maze;
+import maze.ScratchArena;
+import maze.VisitedStamps;
 
 /** 
  * Implements Bi-directional BFS maze solving algorithm.
  */
 public class BiDirectionalBFSSolver implements MazeSolver 
 {	
-	// Visited cells from each direction (entrance and exit)
-	boolean visitedFromEntrance[][];
-	boolean visitedFromExit[][];
+	// Visited cells from each direction (entrance and exit), indexed by r * width + c
+	VisitedStamps visitedFromEntrance;
+	VisitedStamps visitedFromExit;
+	
+	// Reused by every solve of this solver
+	ScratchArena arena = new ScratchArena();
 	
 	int sizeR;
 	int sizeC;
+	int width;
 	
 	// Counts the cells visited
 	int count = 0;
@@ -49,6 +55,9 @@ public class BiDirectionalBFSSolver implements MazeSolver
 	@Override
 	public void solveMaze(Maze maze) 
 	{	
+		// Counts restart with every solve when the solver is reused
+		count = 0;
+		
 		if(maze.type == maze.NORMAL || maze.type == maze.TUNNEL)
 		{
 			normalAndTunnelSolver(maze);
@@ -99,9 +108,10 @@ public class BiDirectionalBFSSolver implements MazeSolver
 		startingRExi = exit.r;
 		startingCExi = exit.c;
 		
-		// A boolean array is created to check visited status for each cell from entrance and from exit
-		visitedFromEntrance = new boolean[sizeR][sizeC];
-		visitedFromExit = new boolean[sizeR][sizeC];
+		// Visited sets are taken from the arena and emptied for each cell from entrance and from exit
+		width = maze.width();
+		visitedFromEntrance = arena.visited(0, sizeR * width);
+		visitedFromExit = arena.visited(1, sizeR * width);
 		
 		// Entrance cell created by passing in the starting row and column coordinates
 		Cell cellFromEnt = new Cell(startingREnt, startingCEnt);
@@ -110,8 +120,8 @@ public class BiDirectionalBFSSolver implements MazeSolver
 		Cell cellFromExit = new Cell(startingRExi, startingCExi);
 		
 		// Cells are reassigned position so that details of each neighboring walls are present as well
-		cellFromEnt = maze.map[startingREnt][startingCEnt];
-		cellFromExit = maze.map[startingRExi][startingCExi];
+		cellFromEnt = maze.cellAt(startingREnt, startingCEnt);
+		cellFromExit = maze.cellAt(startingRExi, startingCExi);
 		
 		// Stack that will keep count of cells as we move along the maze from entrance
 		LinkedList<Cell> stackFromEntrance = new LinkedList<Cell>();
@@ -126,8 +136,8 @@ public class BiDirectionalBFSSolver implements MazeSolver
 		while(stackFromEntrance.isEmpty() != true || stackFromExit.isEmpty() != true)
 		{	
 			// Set the visited status of the current cell to true 
-			visitedFromEntrance[cellFromEnt.r][cellFromEnt.c] = true;
-			visitedFromExit[cellFromExit.r][cellFromExit.c] = true;
+			visitedFromEntrance.add(cellFromEnt.r * width + cellFromEnt.c);
+			visitedFromExit.add(cellFromExit.r * width + cellFromExit.c);
 			 
 			// Mark the visited cells on the maze
 			maze.drawFtPrt(cellFromEnt);
@@ -135,24 +145,24 @@ public class BiDirectionalBFSSolver implements MazeSolver
 			
 			count++;
 			
-			 if (maze.map[cellFromEnt.r][cellFromEnt.c].tunnelTo != null)
+			 if (maze.cellAt(cellFromEnt.r, cellFromEnt.c).tunnelTo != null)
 			 {
 				 // If it does then the current cell would be the cell at the other end of the tunnel
-				cellFromEnt = maze.map[cellFromEnt.r][cellFromEnt.c].tunnelTo;
+				cellFromEnt = maze.cellAt(cellFromEnt.r, cellFromEnt.c).tunnelTo;
 				 // Set the visited status of the cell at the end of the tunnel to true
-				visitedFromEntrance[cellFromEnt.r][cellFromEnt.c] = true;
+				visitedFromEntrance.add(cellFromEnt.r * width + cellFromEnt.c);
 				 // Mark the visited cell on the maze
 				 maze.drawFtPrt(cellFromEnt);
 				 
 				 count++;
 			 }
 			
-			 if (maze.map[cellFromExit.r][cellFromExit.c].tunnelTo != null)
+			 if (maze.cellAt(cellFromExit.r, cellFromExit.c).tunnelTo != null)
 			 {
 				 // If it does then the current cell would be the cell at the other end of the tunnel
-				cellFromExit = maze.map[cellFromExit.r][cellFromExit.c].tunnelTo;
+				cellFromExit = maze.cellAt(cellFromExit.r, cellFromExit.c).tunnelTo;
 				 // Set the visited status of the cell at the end of the tunnel to true
-				visitedFromExit[cellFromExit.r][cellFromExit.c] = true;
+				visitedFromExit.add(cellFromExit.r * width + cellFromExit.c);
 				 // Mark the visited cell on the maze
 				 maze.drawFtPrt(cellFromExit);
 				 
@@ -171,7 +181,7 @@ public class BiDirectionalBFSSolver implements MazeSolver
 				 if (isIn(cellFromEnt.r + maze.deltaR[i], cellFromEnt.c + maze.deltaC[i], maze)) 
 					{		
 					 	// Checks if the next cell has not been visited yet
-						if (!visitedFromEntrance[cellFromEnt.r + maze.deltaR[i]][cellFromEnt.c + maze.deltaC[i]])
+						if (!visitedFromEntrance.contains((cellFromEnt.r + maze.deltaR[i]) * width + cellFromEnt.c + maze.deltaC[i]))
 						{
 							// Checks if there's a path between the current cell and the next
 							if (cellFromEnt.wall[i].present == false)
@@ -188,7 +198,7 @@ public class BiDirectionalBFSSolver implements MazeSolver
 					if (isIn(cellFromExit.r + maze.deltaR[i], cellFromExit.c + maze.deltaC[i], maze)) 
 					{		
 						// Checks if the next cell has not been visited yet
-						if (!visitedFromExit[cellFromExit.r + maze.deltaR[i]][cellFromExit.c + maze.deltaC[i]])
+						if (!visitedFromExit.contains((cellFromExit.r + maze.deltaR[i]) * width + cellFromExit.c + maze.deltaC[i]))
 						{
 							// Checks if there's a path between the current cell and the next
 							if (cellFromExit.wall[i].present == false)
@@ -207,9 +217,9 @@ public class BiDirectionalBFSSolver implements MazeSolver
 			 // Get the next cell from entrance direction from the stack
 			 cellFromEnt = stackFromEntrance.removeFirst();
 			 // Checks if the entrance cell has been visited in by the cells from the exit direction
-			 if (visitedFromExit[cellFromEnt.r][cellFromEnt.c] == true)
+			 if (visitedFromExit.contains(cellFromEnt.r * width + cellFromEnt.c))
 			 {
-				 visitedFromEntrance[cellFromEnt.r][cellFromEnt.c] = true;
+				 visitedFromEntrance.add(cellFromEnt.r * width + cellFromEnt.c);
 				 count++;
 				 break;
 			 }
@@ -217,9 +227,9 @@ public class BiDirectionalBFSSolver implements MazeSolver
 			// Get the next cell from the exit direction from the stack
 			 cellFromExit = stackFromExit.removeFirst();
 			// Checks if the exit cell has been visited in by the cells from the entrance direction
-			 if (visitedFromEntrance[cellFromExit.r][cellFromExit.c] == true)
+			 if (visitedFromEntrance.contains(cellFromExit.r * width + cellFromExit.c))
 			 {
-				 visitedFromExit[cellFromExit.r][cellFromExit.c] = true;
+				 visitedFromExit.add(cellFromExit.r * width + cellFromExit.c);
 				 count++;
 				 break;
 			 }
@@ -248,9 +258,10 @@ public class BiDirectionalBFSSolver implements MazeSolver
 		startingRExi = exit.r;
 		startingCExi = exit.c;
 		
-		// A boolean array is created to check visited status for each cell from entrance and from exit
-		visitedFromEntrance = new boolean[sizeR][sizeC + (sizeR + 1) / 2];
-		visitedFromExit = new boolean[sizeR][sizeC + (sizeR + 1) / 2];
+		// Visited sets are taken from the arena and emptied for each cell from entrance and from exit
+		width = maze.width();
+		visitedFromEntrance = arena.visited(0, sizeR * width);
+		visitedFromExit = arena.visited(1, sizeR * width);
 		
 		// Entrance cell created by passing in the starting row and column coordinates
 		Cell cellFromEnt = new Cell(startingREnt, startingCEnt);
@@ -259,8 +270,8 @@ public class BiDirectionalBFSSolver implements MazeSolver
 		Cell cellFromExit = new Cell(startingRExi, startingCExi);
 		
 		// Cells are reassigned position so that details of each neighboring walls are present as well
-		cellFromEnt = maze.map[startingREnt][startingCEnt];
-		cellFromExit = maze.map[startingRExi][startingCExi];
+		cellFromEnt = maze.cellAt(startingREnt, startingCEnt);
+		cellFromExit = maze.cellAt(startingRExi, startingCExi);
 		
 		// Stack that will keep count of cells as we move along the maze from entrance
 		LinkedList<Cell> stackFromEntrance = new LinkedList<Cell>();
@@ -276,8 +287,8 @@ public class BiDirectionalBFSSolver implements MazeSolver
 		while(stackFromEntrance.isEmpty() != true || stackFromExit.isEmpty() != true)
 		{	
 			// Set the visited status of the current cell to true 
-			visitedFromEntrance[cellFromEnt.r][cellFromEnt.c] = true;
-			visitedFromExit[cellFromExit.r][cellFromExit.c] = true;
+			visitedFromEntrance.add(cellFromEnt.r * width + cellFromEnt.c);
+			visitedFromExit.add(cellFromExit.r * width + cellFromExit.c);
 			 
 			// Mark the visited cells on the maze
 			maze.drawFtPrt(cellFromEnt);
@@ -289,7 +300,7 @@ public class BiDirectionalBFSSolver implements MazeSolver
 			 {					 
 					if (isInHex(cellFromEnt.r + maze.deltaR[i], cellFromEnt.c + maze.deltaC[i], maze)) 
 					{		
-						if (!visitedFromEntrance[cellFromEnt.r + maze.deltaR[i]][cellFromEnt.c + maze.deltaC[i]])
+						if (!visitedFromEntrance.contains((cellFromEnt.r + maze.deltaR[i]) * width + cellFromEnt.c + maze.deltaC[i]))
 						{
 							if (cellFromEnt.wall[i].present == false)
 							{
@@ -303,7 +314,7 @@ public class BiDirectionalBFSSolver implements MazeSolver
 					
 					if (isInHex(cellFromExit.r + maze.deltaR[i], cellFromExit.c + maze.deltaC[i], maze)) 
 					{		
-						if (!visitedFromExit[cellFromExit.r + maze.deltaR[i]][cellFromExit.c + maze.deltaC[i]])
+						if (!visitedFromExit.contains((cellFromExit.r + maze.deltaR[i]) * width + cellFromExit.c + maze.deltaC[i]))
 						{
 							if (cellFromExit.wall[i].present == false)
 							{
@@ -318,17 +329,17 @@ public class BiDirectionalBFSSolver implements MazeSolver
 			 
 			 
 			 cellFromEnt = stackFromEntrance.removeFirst();
-			 if (visitedFromExit[cellFromEnt.r][cellFromEnt.c] == true)
+			 if (visitedFromExit.contains(cellFromEnt.r * width + cellFromEnt.c))
 			 {
-				 visitedFromEntrance[cellFromEnt.r][cellFromEnt.c] = true;
+				 visitedFromEntrance.add(cellFromEnt.r * width + cellFromEnt.c);
 				 count++;
 				 break;
 			 }
 			 
 			 cellFromExit = stackFromExit.removeFirst();
-			 if (visitedFromEntrance[cellFromExit.r][cellFromExit.c] == true)
+			 if (visitedFromEntrance.contains(cellFromExit.r * width + cellFromExit.c))
 			 {
-				 visitedFromExit[cellFromExit.r][cellFromExit.c] = true;
+				 visitedFromExit.add(cellFromExit.r * width + cellFromExit.c);
 				 count++;
 				 break;
 			 }
@@ -344,7 +355,7 @@ public class BiDirectionalBFSSolver implements MazeSolver
 			for(int j = 0; j < sizeC; j++)
 			{
 				// Checks if there's a link between the two searches which if there is then there's a solution
-				if (visitedFromEntrance[i][j] == visitedFromExit[i][j])
+				if (visitedFromEntrance.contains(i * width + j) == visitedFromExit.contains(i * width + j))
 				{
 					return true;
 				}
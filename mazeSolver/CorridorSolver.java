@@ -0,0 +1,253 @@
+package mazeSolver;
+
+import java.util.Arrays;
+
+import maze.CellGraph;
+import maze.CorridorGraph;
+import maze.Maze;
+import maze.SolutionPath;
+
+/**
+ * Implements a shortest path solver running on the corridor-contracted graph of the maze.
+ */
+public class CorridorSolver implements PathSolver
+{
+	// Graph passed to the constructor, reused by every solve of the maze it was built from
+	CorridorGraph givenGraph;
+
+	// Graph of the last solve
+	CorridorGraph graph;
+
+	// True to draw every corridor explored, false to draw the final path only
+	boolean drawExplored;
+
+	Maze maze;
+
+	// Cells from the entrance to the exit
+	int path[];
+
+	// Counts the cells visited
+	int count = 0;
+
+	boolean solved = false;
+
+	/**
+	 * Solver building the contracted graph afresh on every solve, drawing the path only.
+	 */
+	public CorridorSolver()
+	{
+		this(null, false);
+	}
+
+	/**
+	 * @param graph Contracted graph built beforehand, or null to build it on every solve.
+	 *              A graph given here is only used for the maze it was built from and must
+	 *              not be stale, i.e. the walls must not have changed since.
+	 * @param drawExplored True to draw footprints on every corridor explored like the other
+	 *                     solvers do, false to draw the final path only.
+	 */
+	public CorridorSolver(CorridorGraph graph, boolean drawExplored)
+	{
+		givenGraph = graph;
+		this.drawExplored = drawExplored;
+	}
+
+	/**
+	 * Solve a maze using Dijkstra's algorithm on its contracted corridors.
+	 *
+	 * ******************************************************************************************
+	 *
+	 * ALGORITHM corridorSolver (maze)
+	 * Input: Maze maze.
+	 * OUTPUT : Shortest path from the entrance to the exit drawn on the maze.
+	 *
+	 * 1: Collapse every chain of cells with two passages into one edge weighted by its length,
+	 *    leaving junctions, dead ends, the entrance and the exit as nodes
+	 * 2: Run Dijkstra from the entrance node until the exit node is settled
+	 * 3: Follow the parent edges back from the exit node
+	 * 4: Expand every edge of the path back to the cells of its corridor and draw them
+	 *
+	 * ******************************************************************************************
+	 *
+	 * @param maze Input Maze.
+	 */
+	@Override
+	public void solveMaze(Maze maze)
+	{
+		this.maze = maze;
+		// a graph kept from an earlier solve would miss any wall changed since
+		if (givenGraph != null && givenGraph.cells.maze == maze)
+		{
+			graph = givenGraph;
+		}
+		else
+		{
+			graph = new CorridorGraph(new CellGraph(maze));
+		}
+
+		int n = graph.numNodes;
+		long dist[] = new long[n];
+		int parentEdge[] = new int[n];
+		int parentNode[] = new int[n];
+		boolean settled[] = new boolean[n];
+		Arrays.fill(dist, Long.MAX_VALUE);
+
+		// Binary heap of (distance << 32 | node)
+		long heap[] = new long[Math.max(16, n)];
+		int heapSize = 0;
+
+		count = 0;
+		solved = false;
+		int expanded[] = drawExplored ? new int[graph.chainCells.length + 1] : null;
+
+		dist[graph.entrance] = 0;
+		parentEdge[graph.entrance] = -1;
+		heap[heapSize++] = graph.entrance;
+
+		while (heapSize > 0)
+		{
+			long top = heap[0];
+			heap[0] = heap[--heapSize];
+			siftDown(heap, heapSize, 0);
+
+			int u = (int) top;
+			if (settled[u])
+			{
+				continue;
+			}
+			settled[u] = true;
+			count++;
+			if (drawExplored)
+			{
+				maze.drawFtPrt(graph.cells.cell(graph.nodeCell[u]));
+			}
+			if (u == graph.exit)
+			{
+				solved = true;
+				break;
+			}
+
+			for (int e = graph.offset[u]; e < graph.offset[u + 1]; e++)
+			{
+				int v = graph.target[e];
+				long d = dist[u] + graph.length[e];
+				if (!settled[v] && d < dist[v])
+				{
+					dist[v] = d;
+					parentEdge[v] = e;
+					parentNode[v] = u;
+					if (heapSize == heap.length)
+					{
+						heap = Arrays.copyOf(heap, heap.length * 2);
+					}
+					heap[heapSize] = (d << 32) | v;
+					siftUp(heap, heapSize++);
+				}
+				if (!settled[v])
+				{
+					count += graph.length[e] - 1;
+					if (drawExplored)
+					{
+						int end = graph.expand(e, expanded, 0);
+						for (int i = 0; i < end; i++)
+						{
+							maze.drawFtPrt(graph.cells.cell(expanded[i]));
+						}
+					}
+				}
+			}
+		}
+
+		if (solved)
+		{
+			buildPath(parentEdge, parentNode, dist[graph.exit]);
+			if (!drawExplored)
+			{
+				for (int i = 0; i < path.length; i++)
+				{
+					maze.drawFtPrt(graph.cells.cell(path[i]));
+				}
+			}
+		}
+	} // end of solveMaze()
+
+
+	/*
+	 * Expand the parent edges from the entrance to the exit back to cells.
+	 */
+	private void buildPath(int parentEdge[], int parentNode[], long length)
+	{
+		path = new int[(int) length + 1];
+		int pos = path.length;
+		int scratch[] = new int[graph.chainCells.length + 1];
+
+		for (int u = graph.exit; ; u = parentNode[u])
+		{
+			path[--pos] = graph.nodeCell[u];
+			if (parentEdge[u] < 0)
+			{
+				break;
+			}
+			int end = graph.expand(parentEdge[u], scratch, 0);
+			for (int i = end - 1; i >= 0; i--)
+			{
+				path[--pos] = scratch[i];
+			}
+		}
+	} // end of buildPath()
+
+
+	private static void siftUp(long heap[], int i)
+	{
+		long x = heap[i];
+		while (i > 0 && heap[(i - 1) >>> 1] > x)
+		{
+			heap[i] = heap[(i - 1) >>> 1];
+			i = (i - 1) >>> 1;
+		}
+		heap[i] = x;
+	} // end of siftUp()
+
+
+	private static void siftDown(long heap[], int size, int i)
+	{
+		long x = heap[i];
+		while (2 * i + 1 < size)
+		{
+			int child = 2 * i + 1;
+			if (child + 1 < size && heap[child + 1] < heap[child])
+			{
+				child++;
+			}
+			if (heap[child] >= x)
+			{
+				break;
+			}
+			heap[i] = heap[child];
+			i = child;
+		}
+		heap[i] = x;
+	} // end of siftDown()
+
+
+	@Override
+	public SolutionPath solutionPath()
+	{
+		return solved ? SolutionPath.of(maze, path, path.length) : null;
+	} // end of solutionPath()
+
+
+	@Override
+	public boolean isSolved()
+	{
+		return solved;
+	} // end of isSolved()
+
+
+	@Override
+	public int cellsExplored()
+	{
+		return count;
+	} // end of cellsExplored()
+
+} // end of class CorridorSolver
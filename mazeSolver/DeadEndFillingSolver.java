@@ -0,0 +1,246 @@
+package mazeSolver;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+import maze.CellGraph;
+import maze.Maze;
+import maze.SolutionPath;
+
+/**
+ * Implements the dead-end filling maze solving algorithm, pruning dead ends in parallel.
+ */
+public class DeadEndFillingSolver implements PathSolver
+{
+	// Ranges of cells smaller than this are scanned for dead ends by a single task
+	final static int RANGE = 1 << 14;
+
+	// Degree given to a filled cell, low enough to stay negative whatever is subtracted
+	final static int FILLED = Integer.MIN_VALUE / 2;
+
+	ForkJoinPool pool;
+
+	CellGraph graph;
+
+	// Number of open passages to cells not filled yet, FILLED once the cell itself is filled
+	AtomicIntegerArray degree;
+
+	// Cells left after filling, in BFS order from the entrance
+	int path[];
+	int pathLength = 0;
+
+	// parent[i] is the cell the BFS over the cells left reached cell i from, -1 for the entrance
+	int parent[];
+
+	// Counts the cells visited
+	int count = 0;
+
+	boolean solved = false;
+
+	/**
+	 * Solver running on the common pool.
+	 */
+	public DeadEndFillingSolver()
+	{
+		this(ForkJoinPool.commonPool());
+	}
+
+	/**
+	 * @param pool Pool the dead ends are filled on.
+	 */
+	public DeadEndFillingSolver(ForkJoinPool pool)
+	{
+		this.pool = pool;
+	}
+
+	/**
+	 * Solve a maze by filling its dead ends.
+	 *
+	 * ******************************************************************************************
+	 *
+	 * ALGORITHM deadEndFilling (maze)
+	 * Input: Maze maze.
+	 * OUTPUT : Cells left after filling, which is the path from the entrance to the exit
+	 *          on a perfect maze, drawn on the maze.
+	 *
+	 * 1: Count the open passages of every cell
+	 * 2: In parallel over ranges of cells, start a fill from every dead end (one passage)
+	 *    other than the entrance and the exit
+	 * 3: A fill marks its cell as filled, then atomically decrements the degree of the one
+	 *    neighbour not filled yet
+	 * 4: If that brings the neighbour down to one passage it has become a dead end, and
+	 *    the fill carries on from it, unless it is the entrance or the exit. Only the fill that
+	 *    took the degree to one carries on, so no cell is filled twice
+	 * 5: Draw the cells left that can be reached from the entrance
+	 *
+	 * No search direction is chosen, and the fills never need to wait for each other.
+	 *
+	 * ******************************************************************************************
+	 *
+	 * @param maze Input Maze.
+	 */
+	@Override
+	public void solveMaze(Maze maze)
+	{
+		graph = new CellGraph(maze);
+		int n = graph.numSlots;
+
+		int initial[] = new int[n];
+		for (int i = 0; i < n; i++)
+		{
+			initial[i] = graph.degree(i);
+		}
+		degree = new AtomicIntegerArray(initial);
+
+		pool.invoke(new Fill(initial, 0, n));
+
+		// Collect the cells left that are connected to the entrance
+		path = new int[n];
+		parent = new int[n];
+		boolean drawn[] = new boolean[n];
+		pathLength = 0;
+		path[pathLength++] = graph.entrance;
+		parent[graph.entrance] = -1;
+		drawn[graph.entrance] = true;
+		for (int head = 0; head < pathLength; head++)
+		{
+			int u = path[head];
+			for (int j = u * CellGraph.SLOTS; j < u * CellGraph.SLOTS + CellGraph.SLOTS; j++)
+			{
+				int v = graph.adj[j];
+				if (v >= 0 && !drawn[v] && degree.get(v) >= 0)
+				{
+					drawn[v] = true;
+					parent[v] = u;
+					path[pathLength++] = v;
+				}
+			}
+		}
+
+		solved = drawn[graph.exit];
+		count = 0;
+		for (int i = 0; i < n; i++)
+		{
+			if (graph.cell(i) != null && (degree.get(i) < 0 || drawn[i]))
+			{
+				count++;
+			}
+		}
+
+		for (int i = 0; i < pathLength; i++)
+		{
+			maze.drawFtPrt(graph.cell(path[i]));
+		}
+	} // end of solveMaze()
+
+
+	/*
+	 * Fill from the dead end x, following the corridor while the next cell becomes a dead end.
+	 */
+	private void fillFrom(int x)
+	{
+		while (true)
+		{
+			degree.set(x, FILLED);
+
+			// The one neighbour not filled yet
+			int next = -1;
+			for (int j = x * CellGraph.SLOTS; j < x * CellGraph.SLOTS + CellGraph.SLOTS; j++)
+			{
+				int v = graph.adj[j];
+				if (v >= 0 && degree.get(v) >= 0)
+				{
+					next = v;
+					break;
+				}
+			}
+			if (next < 0)
+			{
+				return;
+			}
+
+			if (degree.decrementAndGet(next) != 1 || next == graph.entrance || next == graph.exit)
+			{
+				return;
+			}
+			x = next;
+		}
+	} // end of fillFrom()
+
+
+	/*
+	 * Starts a fill from every dead end of the cells [from, to).
+	 */
+	class Fill extends RecursiveAction
+	{
+		private static final long serialVersionUID = 1L;
+
+		int initial[];
+		int from;
+		int to;
+
+		Fill(int initial[], int from, int to)
+		{
+			this.initial = initial;
+			this.from = from;
+			this.to = to;
+		}
+
+		@Override
+		protected void compute()
+		{
+			if (to - from > RANGE)
+			{
+				int mid = (from + to) >>> 1;
+				invokeAll(new Fill(initial, from, mid), new Fill(initial, mid, to));
+				return;
+			}
+			for (int i = from; i < to; i++)
+			{
+				if (initial[i] == 1 && i != graph.entrance && i != graph.exit)
+				{
+					fillFrom(i);
+				}
+			}
+		}
+	} // end of class Fill
+
+
+	// The cells left are only the path on a perfect maze, loops survive the filling, so the
+	// route is followed back from the exit through the BFS parents
+	@Override
+	public SolutionPath solutionPath()
+	{
+		if (!solved)
+		{
+			return null;
+		}
+		int length = 0;
+		for (int i = graph.exit; i >= 0; i = parent[i])
+		{
+			length++;
+		}
+		int route[] = new int[length];
+		for (int i = graph.exit, k = length - 1; i >= 0; i = parent[i], k--)
+		{
+			route[k] = i;
+		}
+		return SolutionPath.of(graph.maze, route, length);
+	} // end of solutionPath()
+
+
+	@Override
+	public boolean isSolved()
+	{
+		return solved;
+	} // end of isSolved()
+
+
+	@Override
+	public int cellsExplored()
+	{
+		return count;
+	} // end of cellsExplored()
+
+} // end of class DeadEndFillingSolver
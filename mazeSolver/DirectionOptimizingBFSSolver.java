@@ -0,0 +1,103 @@
+package mazeSolver;
+
+import maze.CellGraph;
+import maze.DirectionOptimizingBFS;
+import maze.Maze;
+import maze.SolutionPath;
+
+/**
+ * Implements a BFS maze solver switching between top-down and bottom-up levels.
+ */
+public class DirectionOptimizingBFSSolver implements PathSolver
+{
+	DirectionOptimizingBFS bfs;
+
+	CellGraph graph;
+
+	Maze maze;
+
+	// Cells from the entrance to the exit
+	int path[];
+	int pathLength = 0;
+
+	// Counts the cells visited
+	int count = 0;
+
+	boolean solved = false;
+
+	/**
+	 * Solve a maze using a direction-optimizing BFS.
+	 *
+	 * ******************************************************************************************
+	 *
+	 * ALGORITHM directionOptimizingBFS (maze)
+	 * Input: Maze maze.
+	 * OUTPUT : Shortest path from the entrance to the exit drawn on the maze.
+	 *
+	 * 1: Convert the maze to its cell-index layout
+	 * 2: Run BFS from the entrance, each level is expanded top-down while the frontier is small
+	 *    and bottom-up (unvisited cells look for a parent in the frontier) while it is large
+	 * 3: Stop once the exit is reached
+	 * 4: Follow the parents back from the exit and draw the path
+	 *
+	 * ******************************************************************************************
+	 *
+	 * @param maze Input Maze.
+	 */
+	@Override
+	public void solveMaze(Maze maze)
+	{
+		this.maze = maze;
+		graph = new CellGraph(maze);
+		bfs = new DirectionOptimizingBFS(graph);
+
+		count = bfs.search(graph.entrance, graph.exit);
+		solved = bfs.isVisited(graph.exit);
+
+		pathLength = 0;
+		if (solved)
+		{
+			int length = 0;
+			for (int idx = graph.exit; idx != -1; idx = bfs.parent[idx])
+			{
+				length++;
+			}
+
+			path = new int[length];
+			pathLength = length;
+			int idx = graph.exit;
+			for (int i = length - 1; i >= 0; i--)
+			{
+				path[i] = idx;
+				idx = bfs.parent[idx];
+			}
+
+			for (int i = 0; i < length; i++)
+			{
+				maze.drawFtPrt(graph.cell(path[i]));
+			}
+		}
+	} // end of solveMaze()
+
+
+	@Override
+	public SolutionPath solutionPath()
+	{
+		return solved ? SolutionPath.of(maze, path, pathLength) : null;
+	} // end of solutionPath()
+
+
+	@Override
+	public boolean isSolved()
+	{
+		return solved;
+	} // end of isSolved()
+
+
+	@Override
+	public int cellsExplored()
+	{
+		return count;
+	} // end of cellsExplored()
+
+} // end of class DirectionOptimizingBFSSolver
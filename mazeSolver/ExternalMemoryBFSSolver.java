@@ -0,0 +1,637 @@
+package mazeSolver;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import maze.Maze;
+import maze.MazeFile;
+import maze.MazeSource;
+import maze.SolutionPath;
+
+/**
+ * Implements BFS for mazes larger than memory: the maze is read from a file, the frontiers
+ * are kept in sequential files and the visited bits in a memory-mapped file.
+ */
+public class ExternalMemoryBFSSolver implements PathSolver
+{
+	// Visited bits are mapped in segments of this many bytes
+	final static int SEGMENT = 1 << 30;
+
+	// Cell indices read from a level file at once
+	final static int READ_CHUNK = 1 << 13;
+
+	// Slot of the tunnel of a cell, after the directions
+	final static int TUNNEL = Maze.NUM_DIR;
+
+	// Directory the spill files are created in
+	File workDir;
+
+	// Candidates for the next frontier held in memory before being spilled, sorted, to a run file,
+	// allocated by solve() up to bufferCells and kept for the next solves
+	int bufferCells;
+	long buffer[] = new long[0];
+	int buffered = 0;
+
+	// Files of the current solve
+	File dir;
+	MappedByteBuffer visited[];
+	FileChannel levelsIn;
+	DataOutputStream levelsOut;
+	List<File> runs = new ArrayList<File>();
+
+	// Chunk of the level being expanded
+	ByteBuffer level = ByteBuffer.allocate(READ_CHUNK * 8);
+
+	// levelStart[d] is the index in the levels file of the first cell at distance d
+	long levelStart[] = new long[16];
+	int numLevels = 0;
+	long written = 0;
+
+	MazeSource source;
+	int width;
+
+	// Maze solved by solveMaze(), null when solving a source directly
+	Maze maze;
+
+	// Cells from the entrance to the exit
+	long path[] = new long[0];
+
+	long count = 0;
+	boolean solved = false;
+
+	/**
+	 * Solver spilling to the temporary directory, with up to 2^22 frontier cells kept in memory.
+	 */
+	public ExternalMemoryBFSSolver()
+	{
+		this(new File(System.getProperty("java.io.tmpdir")), 1 << 22);
+	}
+
+	/**
+	 * @param workDir Directory the spill files are created in.
+	 * @param bufferCells Maximum number of frontier cells kept in memory before spilling.
+	 */
+	public ExternalMemoryBFSSolver(File workDir, int bufferCells)
+	{
+		this.workDir = workDir;
+		this.bufferCells = bufferCells;
+	}
+
+	/**
+	 * Solve a maze with external-memory BFS.
+	 *
+	 * ******************************************************************************************
+	 *
+	 * ALGORITHM externalMemoryBFS (maze)
+	 * Input: Maze maze, read from a file.
+	 * OUTPUT : Path from the entrance to the exit, drawn on the maze.
+	 *
+	 * 1: Write the entrance as level 0 of the levels file and set its visited bit
+	 * 2: Read level d sequentially, in increasing order of cell index
+	 * 3: For every cell read, collect its open neighbours whose visited bit is not set;
+	 *    when the memory buffer is full, sort it, drop duplicates and spill it as a run file
+	 * 4: Merge the sorted runs; every cell coming out of the merge not visited yet gets its
+	 *    visited bit set and is appended to the levels file as level d + 1
+	 * 5: Repeat from step 2 until the exit is written or a level is empty
+	 * 6: From the exit at level D, find in every level D - 1, ..., 0 a neighbour of the
+	 *    current cell by binary search, which gives the path back to the entrance
+	 *
+	 * Levels are read and written sequentially, and sorted frontiers touch the maze file and
+	 * the visited bits in increasing order, so the disk sees streaming I/O instead of random
+	 * page faults. Only the buffer and the path are on the heap, the maze file being mapped
+	 * read-only by MazeFile.
+	 *
+	 * ******************************************************************************************
+	 *
+	 * @param maze Input Maze.
+	 */
+	@Override
+	public void solveMaze(Maze maze)
+	{
+		try
+		{
+			File file = File.createTempFile("maze", ".bin", workDir);
+			try
+			{
+				MazeFile.write(maze, file);
+				try (MazeFile mazeFile = new MazeFile(file))
+				{
+					solve(mazeFile);
+				}
+			}
+			finally
+			{
+				file.delete();
+			}
+		}
+		catch (IOException e)
+		{
+			throw new UncheckedIOException(e);
+		}
+
+		this.maze = maze;
+
+		// The maze is in memory, so draw the path for validation
+		for (long idx : path)
+		{
+			maze.drawFtPrt(maze.cellAt((int) (idx / width), (int) (idx % width)));
+		}
+	} // end of solveMaze()
+
+
+	/**
+	 * Solve the maze read through a source, usually a MazeFile.
+	 * @param source Maze to solve.
+	 * @return True if the exit was reached, the path is then left in path().
+	 * @throws IOException If a spill file cannot be written or read.
+	 */
+	public boolean solve(MazeSource source) throws IOException
+	{
+		this.source = source;
+		maze = null;
+		width = source.width();
+		long numSlots = (long) source.sizeR() * width;
+		long entrance = (long) source.entranceR() * width + source.entranceC();
+		long exit = (long) source.exitR() * width + source.exitC();
+
+		// a level has every cell at most once, so no more candidates than this come out of it
+		int cells = (int) Math.min(bufferCells, numSlots * (TUNNEL + 1));
+		if (buffer.length < cells)
+		{
+			buffer = new long[cells];
+		}
+
+		dir = Files.createTempDirectory(workDir.toPath(), "embfs").toFile();
+		try
+		{
+			open(numSlots);
+			numLevels = 0;
+			written = 0;
+			count = 0;
+			solved = false;
+			path = new long[0];
+
+			setVisited(entrance);
+			startLevel();
+			append(entrance);
+			// the exit is already visited at level 0, so merge() would never find it
+			solved = entrance == exit;
+
+			while (!solved && levelStart[numLevels - 1] < written)
+			{
+				levelsOut.flush();
+				long from = levelStart[numLevels - 1];
+				long to = written;
+
+				// Expand the last level into the buffer, spilling sorted runs when it fills up
+				buffered = 0;
+				for (long pos = from; pos < to; pos += READ_CHUNK)
+				{
+					readFully(levelsIn, level, pos, (int) Math.min(READ_CHUNK, to - pos));
+					while (level.hasRemaining())
+					{
+						expand(level.getLong());
+					}
+				}
+
+				startLevel();
+				solved = merge(exit);
+			}
+			levelsOut.flush();
+			count = written;
+
+			if (solved)
+			{
+				tracePath(entrance, exit);
+			}
+			return solved;
+		}
+		finally
+		{
+			close();
+		}
+	} // end of solve()
+
+
+	/*
+	 * Collect the open neighbours of cell u not visited yet.
+	 */
+	private void expand(long u) throws IOException
+	{
+		int r = (int) (u / width);
+		int c = (int) (u % width);
+		for (int slot = 0; slot <= TUNNEL; slot++)
+		{
+			long v = neighbour(r, c, slot);
+			if (v >= 0 && !isVisited(v))
+			{
+				if (buffered == buffer.length)
+				{
+					spill();
+				}
+				buffer[buffered++] = v;
+			}
+		}
+	} // end of expand()
+
+
+	/*
+	 * Index of the neighbour of cell (r, c) through a slot, -1 if the slot is closed.
+	 */
+	private long neighbour(int r, int c, int slot)
+	{
+		if (slot == TUNNEL)
+		{
+			return source.tunnelTo(r, c);
+		}
+		if (!source.isOpen(r, c, slot))
+		{
+			return -1;
+		}
+		return (long) (r + Maze.deltaR[slot]) * width + c + Maze.deltaC[slot];
+	} // end of neighbour()
+
+
+	/*
+	 * Sort the buffer and drop its duplicates, returning the number of cells left.
+	 */
+	private int sortBuffer()
+	{
+		Arrays.sort(buffer, 0, buffered);
+		int n = 0;
+		for (int i = 0; i < buffered; i++)
+		{
+			if (n == 0 || buffer[n - 1] != buffer[i])
+			{
+				buffer[n++] = buffer[i];
+			}
+		}
+		return n;
+	} // end of sortBuffer()
+
+
+	private void spill() throws IOException
+	{
+		int n = sortBuffer();
+		File run = new File(dir, "run" + runs.size());
+		try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(run), 1 << 16)))
+		{
+			for (int i = 0; i < n; i++)
+			{
+				out.writeLong(buffer[i]);
+			}
+		}
+		runs.add(run);
+		buffered = 0;
+	} // end of spill()
+
+
+	/*
+	 * Merge the spilled runs and the buffer into the next level, returning true if the exit is in it.
+	 */
+	private boolean merge(long exit) throws IOException
+	{
+		boolean found = false;
+		if (runs.isEmpty())
+		{
+			// Everything fitted in memory
+			int n = sortBuffer();
+			for (int i = 0; i < n; i++)
+			{
+				found |= emit(buffer[i], exit);
+			}
+			return found;
+		}
+
+		spill();
+		int k = runs.size();
+		FileChannel channels[] = new FileChannel[k];
+		ByteBuffer chunks[] = new ByteBuffer[k];
+		long pos[] = new long[k];
+		long end[] = new long[k];
+		// Binary heap of run numbers keyed by the cell at the head of the run
+		int heap[] = new int[k];
+		int size = 0;
+		try
+		{
+			for (int j = 0; j < k; j++)
+			{
+				channels[j] = FileChannel.open(runs.get(j).toPath(), StandardOpenOption.READ);
+				end[j] = channels[j].size() / 8;
+				chunks[j] = ByteBuffer.allocate(READ_CHUNK * 8);
+				chunks[j].limit(0);
+				if (advance(channels[j], chunks[j], pos, end, j))
+				{
+					heap[size++] = j;
+					siftUp(heap, size - 1, chunks);
+				}
+			}
+
+			while (size > 0)
+			{
+				int j = heap[0];
+				found |= emit(chunks[j].getLong(), exit);
+				if (!advance(channels[j], chunks[j], pos, end, j))
+				{
+					heap[0] = heap[--size];
+				}
+				siftDown(heap, size, chunks);
+			}
+		}
+		finally
+		{
+			for (int j = 0; j < k; j++)
+			{
+				if (channels[j] != null)
+				{
+					channels[j].close();
+				}
+				runs.get(j).delete();
+			}
+			runs.clear();
+		}
+		return found;
+	} // end of merge()
+
+
+	/*
+	 * Make sure run j has a cell at the head of its chunk, reading the next chunk if needed.
+	 */
+	private boolean advance(FileChannel channel, ByteBuffer chunk, long pos[], long end[], int j) throws IOException
+	{
+		if (chunk.hasRemaining())
+		{
+			return true;
+		}
+		if (pos[j] == end[j])
+		{
+			return false;
+		}
+		int n = (int) Math.min(READ_CHUNK, end[j] - pos[j]);
+		readFully(channel, chunk, pos[j], n);
+		pos[j] += n;
+		return true;
+	} // end of advance()
+
+
+	private static long head(ByteBuffer chunks[], int j)
+	{
+		return chunks[j].getLong(chunks[j].position());
+	} // end of head()
+
+
+	private static void siftUp(int heap[], int i, ByteBuffer chunks[])
+	{
+		while (i > 0)
+		{
+			int parent = (i - 1) / 2;
+			if (head(chunks, heap[parent]) <= head(chunks, heap[i]))
+			{
+				break;
+			}
+			int t = heap[parent];
+			heap[parent] = heap[i];
+			heap[i] = t;
+			i = parent;
+		}
+	} // end of siftUp()
+
+
+	private static void siftDown(int heap[], int size, ByteBuffer chunks[])
+	{
+		int i = 0;
+		while (2 * i + 1 < size)
+		{
+			int child = 2 * i + 1;
+			if (child + 1 < size && head(chunks, heap[child + 1]) < head(chunks, heap[child]))
+			{
+				child++;
+			}
+			if (head(chunks, heap[i]) <= head(chunks, heap[child]))
+			{
+				break;
+			}
+			int t = heap[child];
+			heap[child] = heap[i];
+			heap[i] = t;
+			i = child;
+		}
+	} // end of siftDown()
+
+
+	/*
+	 * Append cell v to the level being written unless it is visited, returning true if it is the exit.
+	 */
+	private boolean emit(long v, long exit) throws IOException
+	{
+		if (isVisited(v))
+		{
+			return false;
+		}
+		setVisited(v);
+		append(v);
+		return v == exit;
+	} // end of emit()
+
+
+	/*
+	 * Walk back from the exit, one level at a time.
+	 */
+	private void tracePath(long entrance, long exit) throws IOException
+	{
+		int d = numLevels - 1;
+		path = new long[d + 1];
+		path[d] = exit;
+		ByteBuffer one = ByteBuffer.allocate(8);
+		for (d--; d >= 0; d--)
+		{
+			long cur = path[d + 1];
+			int r = (int) (cur / width);
+			int c = (int) (cur % width);
+			path[d] = -1;
+			for (int slot = 0; slot <= TUNNEL && path[d] < 0; slot++)
+			{
+				long v = neighbour(r, c, slot);
+				if (v >= 0 && inLevel(v, d, one))
+				{
+					path[d] = v;
+				}
+			}
+		}
+	} // end of tracePath()
+
+
+	/*
+	 * Binary search of cell v in level d of the levels file.
+	 */
+	private boolean inLevel(long v, int d, ByteBuffer one) throws IOException
+	{
+		long lo = levelStart[d];
+		long hi = d + 1 < numLevels ? levelStart[d + 1] : written;
+		while (lo < hi)
+		{
+			long mid = (lo + hi) >>> 1;
+			readFully(levelsIn, one, mid, 1);
+			long x = one.getLong(0);
+			if (x == v)
+			{
+				return true;
+			}
+			if (x < v)
+			{
+				lo = mid + 1;
+			}
+			else
+			{
+				hi = mid;
+			}
+		}
+		return false;
+	} // end of inLevel()
+
+
+	private void open(long numSlots) throws IOException
+	{
+		long bytes = (numSlots + 7) / 8;
+		try (RandomAccessFile bits = new RandomAccessFile(new File(dir, "visited"), "rw"))
+		{
+			bits.setLength(bytes);
+			visited = new MappedByteBuffer[(int) ((bytes + SEGMENT - 1) / SEGMENT)];
+			for (int s = 0; s < visited.length; s++)
+			{
+				long start = (long) s * SEGMENT;
+				visited[s] = bits.getChannel().map(FileChannel.MapMode.READ_WRITE, start, Math.min(SEGMENT, bytes - start));
+			}
+		}
+		File levels = new File(dir, "levels");
+		levelsOut = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(levels), 1 << 16));
+		levelsIn = FileChannel.open(levels.toPath(), StandardOpenOption.READ);
+	} // end of open()
+
+
+	private void close() throws IOException
+	{
+		visited = null;
+		if (levelsOut != null)
+		{
+			levelsOut.close();
+		}
+		if (levelsIn != null)
+		{
+			levelsIn.close();
+		}
+		for (File f : dir.listFiles())
+		{
+			f.delete();
+		}
+		dir.delete();
+	} // end of close()
+
+
+	private boolean isVisited(long idx)
+	{
+		long byteIdx = idx >>> 3;
+		return (visited[(int) (byteIdx / SEGMENT)].get((int) (byteIdx % SEGMENT)) & (1 << (idx & 7))) != 0;
+	} // end of isVisited()
+
+
+	private void setVisited(long idx)
+	{
+		long byteIdx = idx >>> 3;
+		MappedByteBuffer segment = visited[(int) (byteIdx / SEGMENT)];
+		int i = (int) (byteIdx % SEGMENT);
+		segment.put(i, (byte) (segment.get(i) | (1 << (idx & 7))));
+	} // end of setVisited()
+
+
+	private void startLevel()
+	{
+		if (numLevels == levelStart.length)
+		{
+			levelStart = Arrays.copyOf(levelStart, numLevels * 2);
+		}
+		levelStart[numLevels++] = written;
+	} // end of startLevel()
+
+
+	private void append(long idx) throws IOException
+	{
+		levelsOut.writeLong(idx);
+		written++;
+	} // end of append()
+
+
+	/*
+	 * Read n cells from position pos (in cells) of a file into buf, leaving buf ready to be read.
+	 */
+	private static void readFully(FileChannel channel, ByteBuffer buf, long pos, int n) throws IOException
+	{
+		buf.clear();
+		buf.limit(n * 8);
+		while (buf.hasRemaining())
+		{
+			if (channel.read(buf, pos * 8 + buf.position()) < 0)
+			{
+				throw new IOException("Unexpected end of spill file.");
+			}
+		}
+		buf.flip();
+	} // end of readFully()
+
+
+	/**
+	 * @return Cells from the entrance to the exit found by the last solve.
+	 */
+	public long[] path()
+	{
+		return path;
+	} // end of path()
+
+
+	/**
+	 * Route of the last solveMaze(), use path() after solve().
+	 */
+	@Override
+	public SolutionPath solutionPath()
+	{
+		if (!solved || maze == null)
+		{
+			return null;
+		}
+		// path() holds r * width + c of the source, the maze numbers its cells by index(r, c)
+		long cells[] = new long[path.length];
+		for (int i = 0; i < path.length; i++)
+		{
+			cells[i] = maze.index((int) (path[i] / width), (int) (path[i] % width));
+		}
+		return SolutionPath.of(maze, cells);
+	} // end of solutionPath()
+
+
+	@Override
+	public boolean isSolved()
+	{
+		return solved;
+	} // end of isSolved()
+
+
+	@Override
+	public int cellsExplored()
+	{
+		return (int) Math.min(Integer.MAX_VALUE, count);
+	} // end of cellsExplored()
+
+} // end of class ExternalMemoryBFSSolver
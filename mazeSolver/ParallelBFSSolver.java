@@ -0,0 +1,310 @@
+package mazeSolver;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import maze.Cell;
+import maze.CellGraph;
+import maze.Maze;
+import maze.SolutionPath;
+
+/**
+ * Implements a level-synchronous parallel BFS maze solving algorithm.
+ */
+public class ParallelBFSSolver implements PathSolver
+{
+	// Frontiers are cut into chunks of this many cells, each chunk is expanded by one task
+	final static int CHUNK = 1024;
+
+	// Pool the levels are expanded on
+	ForkJoinPool pool;
+
+	// True to expand on the int array layout of CellGraph, false to walk the Cell objects
+	boolean useCellGraph;
+
+	// Visited bitset, bit i of word i >> 6 is set once cell i has been claimed
+	AtomicLongArray visited;
+
+	// parent[i] is the cell cell i was claimed from
+	int parent[];
+
+	int exitIdx;
+
+	Maze maze;
+
+	// Cells from the entrance to the exit
+	int path[];
+	int pathLength = 0;
+
+	// Counts the cells visited
+	int count = 0;
+
+	boolean solved = false;
+
+	/**
+	 * Solver running on the common pool over the CellGraph layout.
+	 */
+	public ParallelBFSSolver()
+	{
+		this(ForkJoinPool.commonPool(), true);
+	}
+
+	/**
+	 * @param pool Pool the BFS levels are expanded on.
+	 * @param useCellGraph True to run over the primitive CellGraph layout, false to run on the Cell objects.
+	 */
+	public ParallelBFSSolver(ForkJoinPool pool, boolean useCellGraph)
+	{
+		this.pool = pool;
+		this.useCellGraph = useCellGraph;
+	}
+
+	/**
+	 * Solve a maze using a level-synchronous parallel BFS.
+	 *
+	 * ******************************************************************************************
+	 *
+	 * ALGORITHM parallelBFS (maze)
+	 * Input: Maze maze.
+	 * OUTPUT : Shortest path from the entrance to the exit drawn on the maze.
+	 *
+	 * 1: Claim the entrance and make it the only cell of the frontier
+	 * 2: Cut the frontier into chunks and expand every chunk in its own task
+	 * 3: A task claims a neighbour by setting its visited bit with a compare-and-set,
+	 *    only the task that wins the bit records the parent and adds the neighbour
+	 *    to its own next-frontier buffer
+	 * 4: Once all tasks have joined, concatenate their buffers into the next frontier
+	 * 5: Repeat from step 2 until the exit is claimed or the frontier is empty
+	 * 6: Follow the parents back from the exit and draw the path
+	 *
+	 * ******************************************************************************************
+	 *
+	 * @param maze Input Maze.
+	 */
+	@Override
+	public void solveMaze(Maze maze)
+	{
+		this.maze = maze;
+		pathLength = 0;
+		CellGraph graph = useCellGraph ? new CellGraph(maze) : null;
+
+		int numSlots = maze.numIndices();
+		int entranceIdx = maze.index(maze.entrance);
+		exitIdx = maze.index(maze.exit);
+
+		visited = new AtomicLongArray((numSlots + 63) >>> 6);
+		parent = new int[numSlots];
+		count = 0;
+		solved = false;
+
+		claim(entranceIdx);
+		parent[entranceIdx] = -1;
+		count++;
+
+		int frontier[] = { entranceIdx };
+		int frontierSize = 1;
+
+		while (frontierSize > 0 && !isClaimed(exitIdx))
+		{
+			int numChunks = (frontierSize + CHUNK - 1) / CHUNK;
+			int buffers[][] = new int[numChunks][];
+			int sizes[] = new int[numChunks];
+
+			pool.invoke(new Expansion(maze, graph, frontier, frontierSize, buffers, sizes, 0, numChunks));
+
+			// Merge the per-task buffers, each task owned its own slot so no locking is needed
+			int nextSize = 0;
+			for (int i = 0; i < numChunks; i++)
+			{
+				nextSize += sizes[i];
+			}
+			int next[] = new int[nextSize];
+			int pos = 0;
+			for (int i = 0; i < numChunks; i++)
+			{
+				System.arraycopy(buffers[i], 0, next, pos, sizes[i]);
+				pos += sizes[i];
+			}
+
+			count += nextSize;
+			frontier = next;
+			frontierSize = nextSize;
+		}
+
+		solved = isClaimed(exitIdx);
+		if (solved)
+		{
+			drawPath(maze, graph);
+		}
+	} // end of solveMaze()
+
+
+	/*
+	 * Draw the footprints of the path found, from the entrance to the exit.
+	 */
+	private void drawPath(Maze maze, CellGraph graph)
+	{
+		int length = 0;
+		for (int idx = exitIdx; idx != -1; idx = parent[idx])
+		{
+			length++;
+		}
+
+		path = new int[length];
+		pathLength = length;
+		int idx = exitIdx;
+		for (int i = length - 1; i >= 0; i--)
+		{
+			path[i] = idx;
+			idx = parent[idx];
+		}
+
+		for (int i = 0; i < length; i++)
+		{
+			maze.drawFtPrt(maze.cellAt(path[i]));
+		}
+	} // end of drawPath()
+
+
+	/*
+	 * Claim a cell, returns true if this call is the one that set its visited bit.
+	 */
+	private boolean claim(int idx)
+	{
+		int word = idx >>> 6;
+		long bit = 1L << (idx & 63);
+		long old = visited.get(word);
+		while ((old & bit) == 0)
+		{
+			if (visited.compareAndSet(word, old, old | bit))
+			{
+				return true;
+			}
+			old = visited.get(word);
+		}
+		return false;
+	} // end of claim()
+
+
+	private boolean isClaimed(int idx)
+	{
+		return (visited.get(idx >>> 6) & (1L << (idx & 63))) != 0;
+	} // end of isClaimed()
+
+
+	/*
+	 * Expands the chunks [from, to) of the frontier, splitting in half until a single chunk is left.
+	 * The cells claimed by chunk i are written to buffers[i], sizes[i] of them.
+	 */
+	class Expansion extends RecursiveAction
+	{
+		private static final long serialVersionUID = 1L;
+
+		Maze maze;
+		CellGraph graph;
+		int frontier[];
+		int frontierSize;
+		int buffers[][];
+		int sizes[];
+		int from;
+		int to;
+
+		Expansion(Maze maze, CellGraph graph, int frontier[], int frontierSize, int buffers[][], int sizes[], int from, int to)
+		{
+			this.maze = maze;
+			this.graph = graph;
+			this.frontier = frontier;
+			this.frontierSize = frontierSize;
+			this.buffers = buffers;
+			this.sizes = sizes;
+			this.from = from;
+			this.to = to;
+		}
+
+		@Override
+		protected void compute()
+		{
+			if (to - from > 1)
+			{
+				int mid = (from + to) >>> 1;
+				invokeAll(new Expansion(maze, graph, frontier, frontierSize, buffers, sizes, from, mid),
+						new Expansion(maze, graph, frontier, frontierSize, buffers, sizes, mid, to));
+				return;
+			}
+
+			int start = from * CHUNK;
+			int end = Math.min(start + CHUNK, frontierSize);
+			// Every cell has at most NUM_DIR neighbours and a tunnel
+			int buffer[] = new int[(end - start) * CellGraph.SLOTS];
+			int size = 0;
+
+			for (int i = start; i < end; i++)
+			{
+				int idx = frontier[i];
+				if (graph != null)
+				{
+					for (int j = idx * CellGraph.SLOTS; j < idx * CellGraph.SLOTS + CellGraph.SLOTS; j++)
+					{
+						int next = graph.adj[j];
+						if (next >= 0 && claim(next))
+						{
+							parent[next] = idx;
+							buffer[size++] = next;
+						}
+					}
+				}
+				else
+				{
+					Cell cell = maze.cellAt(idx);
+					for (int j = 0; j < Maze.NUM_DIR; j++)
+					{
+						if (cell.neigh[j] != null && !cell.wall[j].present)
+						{
+							int next = maze.index(cell.neigh[j]);
+							if (claim(next))
+							{
+								parent[next] = idx;
+								buffer[size++] = next;
+							}
+						}
+					}
+					int next = maze.tunnelIndex.partner(idx);
+					if (next >= 0)
+					{
+						if (claim(next))
+						{
+							parent[next] = idx;
+							buffer[size++] = next;
+						}
+					}
+				}
+			}
+
+			buffers[from] = buffer;
+			sizes[from] = size;
+		}
+	} // end of class Expansion
+
+
+	@Override
+	public SolutionPath solutionPath()
+	{
+		return solved ? SolutionPath.of(maze, path, pathLength) : null;
+	} // end of solutionPath()
+
+
+	@Override
+	public boolean isSolved()
+	{
+		return solved;
+	} // end of isSolved()
+
+
+	@Override
+	public int cellsExplored()
+	{
+		return count;
+	} // end of cellsExplored()
+
+} // end of class ParallelBFSSolver
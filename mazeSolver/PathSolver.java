@@ -0,0 +1,16 @@
+package mazeSolver;
+
+import maze.SolutionPath;
+
+/**
+ * Maze solver giving the route it found, which can be validated in O(route length)
+ * instead of rescanning the whole maze.
+ */
+public interface PathSolver extends MazeSolver
+{
+	/**
+	 * Use after solveMaze(maze), to get the route found.
+	 * @return Route from the entrance to the exit, null if the maze is not solved.
+	 */
+	public abstract SolutionPath solutionPath();
+} // end of interface PathSolver
@@ -0,0 +1,158 @@
+package mazeSolver;
+
+import maze.Maze;
+
+/**
+ * Implements the Pledge algorithm, heading for the exit and following walls around obstacles.
+ *
+ * ******************************************************************************************
+ *
+ * ALGORITHM pledge (maze)
+ * Input: Maze maze.
+ * OUTPUT : Walk from the entrance to the exit, recorded as a run-length trace.
+ *
+ * 1: Pick the direction pointing the most towards the exit as the preferred heading
+ * 2: Walk along the preferred heading while it is open
+ * 3: On a wall, turn counterclockwise until a passage is open and follow the walls
+ *    on the right, summing the turns made
+ * 4: Once the sum of the turns is back to zero the preferred heading is faced again,
+ *    go back to step 2
+ * 5: Stop on the exit
+ *
+ * The preferred heading cannot be kept across tunnels, so tunnel mazes are solved by
+ * following walls only. After twice as many steps as cells the heading is given up for
+ * plain wall following, which always reaches the exit of a perfect maze.
+ *
+ * ******************************************************************************************
+ */
+public class PledgeSolver extends WallFollowerSolver
+{
+	// Direction heading for the exit
+	int preferred;
+
+	// Direction of the last step
+	int heading;
+
+	// Sum of the turns made while following a wall, counterclockwise positive,
+	// in sixths of a full turn for hex mazes and quarters for the others
+	int turns = 0;
+
+	boolean following = false;
+
+	// Steps left before giving up the heading and following the walls only
+	long budget;
+
+	@Override
+	protected void start()
+	{
+		budget = 2L * source.sizeR() * source.sizeC();
+		following = false;
+		turns = 0;
+		if (source.type() == Maze.TUNNEL)
+		{
+			followWallsOnly();
+		}
+
+		// Direction with the largest projection on the way to the exit, in drawing coordinates
+		double dx = x(source.exitR(), source.exitC()) - x(r, c);
+		double dy = y(source.exitR()) - y(r);
+		double best = Double.NEGATIVE_INFINITY;
+		preferred = order[0];
+		for (int i = 0; i < order.length - 1; i++)
+		{
+			int dir = order[i];
+			double proj = dx * (x(Maze.deltaR[dir], Maze.deltaC[dir]) - x(0, 0)) + dy * y(Maze.deltaR[dir]);
+			if (proj > best)
+			{
+				best = proj;
+				preferred = dir;
+			}
+		}
+		heading = preferred;
+	} // end of start()
+
+
+	@Override
+	protected int chooseSlot()
+	{
+		if (budget-- == 0)
+		{
+			followWallsOnly();
+		}
+
+		if (!following)
+		{
+			if (isOpen(preferred))
+			{
+				return preferred;
+			}
+			// Turn counterclockwise until a passage is open, keeping the wall on the right
+			int slot = nextOpenSlot(preferred);
+			if (slot < 0)
+			{
+				return -1;
+			}
+			following = true;
+			turns = turn(preferred, slot);
+			heading = slot;
+			return slot;
+		}
+
+		int slot = nextOpenSlot(in);
+		if (slot >= 0 && turns != Integer.MIN_VALUE && slot != TUNNEL)
+		{
+			turns += turn(heading, slot);
+			heading = slot;
+			if (turns == 0)
+			{
+				// Facing the preferred heading again
+				following = false;
+			}
+		}
+		return slot;
+	} // end of chooseSlot()
+
+
+	@Override
+	protected boolean isFollowing()
+	{
+		// Only plain wall following is guaranteed to come back to its first step on a loop
+		return turns == Integer.MIN_VALUE;
+	} // end of isFollowing()
+
+
+	/*
+	 * Give up the preferred heading for plain wall following.
+	 */
+	private void followWallsOnly()
+	{
+		following = true;
+		turns = Integer.MIN_VALUE;
+	} // end of followWallsOnly()
+
+
+	/*
+	 * Turn from direction a to direction b, counterclockwise positive, a U-turn counting
+	 * as a counterclockwise half turn.
+	 */
+	private int turn(int a, int b)
+	{
+		int n = order.length - 1;
+		int t = ((pos[b] - pos[a]) % n + n) % n;
+		return t > n / 2 ? t - n : t;
+	} // end of turn()
+
+
+	// Drawing coordinates of cell (r, c), hex rows are shifted by half a cell each
+	private double x(int r, int c)
+	{
+		return source.type() == Maze.HEX ? c - r * 0.5 : c;
+	} // end of x()
+
+
+	private double y(int r)
+	{
+		return source.type() == Maze.HEX ? r * Math.sqrt(3) / 2 : r;
+	} // end of y()
+
+} // end of class PledgeSolver
@@ -0,0 +1,251 @@
+package mazeSolver;
+
+import java.util.Arrays;
+
+import maze.FootprintTrace;
+import maze.Maze;
+import maze.MazeSource;
+import maze.ObjectMazeSource;
+import maze.SolutionPath;
+
+/**
+ * Implements the right-hand wall follower, with O(1) state besides its footprint trace.
+ */
+public class WallFollowerSolver implements PathSolver
+{
+	// Slot of the tunnel of a cell, after the directions
+	final static int TUNNEL = FootprintTrace.TUNNEL;
+
+	// Slots of a cell in counterclockwise order, the tunnel last
+	final static int SQUARE_ORDER[] = { Maze.EAST, Maze.NORTH, Maze.WEST, Maze.SOUTH, TUNNEL };
+	final static int HEX_ORDER[] = { Maze.EAST, Maze.NORTHEAST, Maze.NORTHWEST, Maze.WEST, Maze.SOUTHWEST, Maze.SOUTHEAST, TUNNEL };
+
+	// Walk recorded, run-length compressed
+	FootprintTrace trace = new FootprintTrace();
+
+	MazeSource source;
+	int order[];
+	// Position of each slot in order[], -1 if not used
+	int pos[] = new int[Maze.NUM_DIR + 1];
+
+	// Current cell, and the slot of the current cell leading back to where we came from
+	int r;
+	int c;
+	int in;
+
+	// First step taken while following walls, -1 if none yet
+	int firstR;
+	int firstC;
+	int firstSlot;
+
+	long steps = 0;
+	boolean solved = false;
+
+	/**
+	 * Solve a maze using the wall follower.
+	 *
+	 * ******************************************************************************************
+	 *
+	 * ALGORITHM wallFollower (maze)
+	 * Input: Maze maze.
+	 * OUTPUT : Walk from the entrance to the exit, recorded as a run-length trace.
+	 *
+	 * 1: Stand on the entrance with the outside of the maze behind
+	 * 2: Turning counterclockwise from the way back (right, straight, left, then back),
+	 *    leave through the first open passage; a tunnel comes after all the directions
+	 * 3: Record the step in the trace
+	 * 4: Repeat from step 2 until the exit is reached, or until the first step is about
+	 *    to be taken again, which means the exit is not on the walls followed
+	 *
+	 * On a perfect maze this walks every passage at most twice and always finds the exit.
+	 * Only the current cell and the slot it was entered by are kept, the walls are read
+	 * through a MazeSource so the maze itself does not need to be in memory.
+	 *
+	 * ******************************************************************************************
+	 *
+	 * @param maze Input Maze.
+	 */
+	@Override
+	public void solveMaze(Maze maze)
+	{
+		solve(new ObjectMazeSource(maze));
+		// The maze is in memory, so draw the walk for validation
+		trace.replay(maze);
+	} // end of solveMaze()
+
+
+	/**
+	 * Solve the maze read through a source, the walk is left in the trace.
+	 * @param source Maze to solve.
+	 * @return True if the exit was reached.
+	 */
+	public boolean solve(MazeSource source)
+	{
+		this.source = source;
+		order = source.type() == Maze.HEX ? HEX_ORDER : SQUARE_ORDER;
+		Arrays.fill(pos, -1);
+		for (int i = 0; i < order.length; i++)
+		{
+			pos[order[i]] = i;
+		}
+
+		r = source.entranceR();
+		c = source.entranceC();
+		steps = 0;
+		solved = false;
+		trace.start(r, c);
+
+		// Put the outside of the maze behind
+		in = order[order.length - 2];
+		for (int i = 0; i < order.length - 1; i++)
+		{
+			if (!source.isIn(r + Maze.deltaR[order[i]], c + Maze.deltaC[order[i]]))
+			{
+				in = order[i];
+				break;
+			}
+		}
+
+		firstSlot = -1;
+		start();
+
+		while (!(r == source.exitR() && c == source.exitC()))
+		{
+			int slot = chooseSlot();
+			if (slot < 0)
+			{
+				// Isolated cell
+				return false;
+			}
+			if (isFollowing())
+			{
+				if (firstSlot < 0)
+				{
+					firstR = r;
+					firstC = c;
+					firstSlot = slot;
+				}
+				else if (r == firstR && c == firstC && slot == firstSlot)
+				{
+					// Back to the first step followed, the walls followed do not lead to the exit
+					return false;
+				}
+			}
+			move(slot);
+		}
+
+		solved = true;
+		return true;
+	} // end of solve()
+
+
+	/*
+	 * Called once the solver stands on the entrance, before the first step.
+	 */
+	protected void start()
+	{
+	} // end of start()
+
+
+	/*
+	 * Slot to leave the current cell through, -1 if there is none.
+	 */
+	protected int chooseSlot()
+	{
+		return nextOpenSlot(in);
+	} // end of chooseSlot()
+
+
+	/*
+	 * True while steps are chosen by following the walls, so that repeating the first of
+	 * these steps means the walls followed loop without reaching the exit.
+	 */
+	protected boolean isFollowing()
+	{
+		return true;
+	} // end of isFollowing()
+
+
+	/*
+	 * First open slot of the current cell turning counterclockwise from slot from,
+	 * slot from itself coming last. -1 if the cell has no open slot.
+	 */
+	protected int nextOpenSlot(int from)
+	{
+		int n = order.length;
+		for (int k = 1; k <= n; k++)
+		{
+			int slot = order[(pos[from] + k) % n];
+			if (isOpen(slot))
+			{
+				return slot;
+			}
+		}
+		return -1;
+	} // end of nextOpenSlot()
+
+
+	protected boolean isOpen(int slot)
+	{
+		if (slot == TUNNEL)
+		{
+			return source.tunnelTo(r, c) >= 0;
+		}
+		return source.isOpen(r, c, slot);
+	} // end of isOpen()
+
+
+	/*
+	 * Move through a slot of the current cell and record the step.
+	 */
+	protected void move(int slot)
+	{
+		if (slot == TUNNEL)
+		{
+			long idx = source.tunnelTo(r, c);
+			r = (int) (idx / source.width());
+			c = (int) (idx % source.width());
+			in = TUNNEL;
+		}
+		else
+		{
+			r += Maze.deltaR[slot];
+			c += Maze.deltaC[slot];
+			in = Maze.oppoDir[slot];
+		}
+		trace.step(slot);
+		steps++;
+	} // end of move()
+
+
+	/**
+	 * @return The walk of the last solve.
+	 */
+	public FootprintTrace trace()
+	{
+		return trace;
+	} // end of trace()
+
+
+	@Override
+	public SolutionPath solutionPath()
+	{
+		return solved ? trace.toSolutionPath(source.type()) : null;
+	} // end of solutionPath()
+
+
+	@Override
+	public boolean isSolved()
+	{
+		return solved;
+	} // end of isSolved()
+
+
+	// Number of steps walked, cells passed several times are counted each time
+	@Override
+	public int cellsExplored()
+	{
+		return (int) Math.min(Integer.MAX_VALUE, steps + 1);
+	} // end of cellsExplored()
+
+} // end of class WallFollowerSolver
@@ -0,0 +1,28 @@
+package test;
+
+import java.io.IOException;
+
+/**
+ * Runs every regression check of this package, see Checks. The exit status is 1 if any
+ * check fails.
+ */
+public class AllTests
+{
+	public static void main(String[] args) throws IOException
+	{
+		SolutionPathTest.run();
+		ParallelBFSSolverTest.run();
+		PerfectionCheckTest.run();
+		DeadEndFillingSolverTest.run();
+		ExternalMemoryBFSSolverTest.run();
+		MazeFileTest.run();
+		MazeCodecTest.run();
+		ValidatingFootprintSinkTest.run();
+		MazeBatchTest.run();
+		MazeDaemonTest.run();
+		MazeSpecTest.run();
+		TunnelIndexTest.run();
+		Checks.exit();
+	} // end of main()
+
+} // end of class AllTests
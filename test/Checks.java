@@ -0,0 +1,249 @@
+package test;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import maze.Cell;
+import maze.HexMaze;
+import maze.Maze;
+import maze.NormalMaze;
+import maze.TunnelMaze;
+import mazeGenerator.KruskalGenerator;
+
+/**
+ * Shared by the regression checks of this package, which run as plain programs since the
+ * tree has no test framework: counts the checks failed and builds the mazes checked. The
+ * reference searches here walk the Cell objects, so that they share no code with the
+ * CellGraph and index-based code they check.
+ */
+public class Checks
+{
+	final static String TYPES[] = { "normal", "tunnel", "hex" };
+
+	static int failures = 0;
+
+
+	static void check(String what, boolean ok)
+	{
+		System.out.println((ok ? "[ok]   " : "[FAIL] ") + what);
+		if (!ok)
+			failures++;
+	} // end of check()
+
+
+	// exit status 1 if any check failed
+	static void exit()
+	{
+		System.exit(failures == 0 ? 0 : 1);
+	} // end of exit()
+
+
+	/**
+	 * Perfect rows x cols maze of KruskalGenerator, the entrance and exit in opposite corners.
+	 * Tunnel mazes get two tunnels.
+	 */
+	static Maze perfectMaze(String type, int rows, int cols, long seed)
+	{
+		Maze maze;
+		List<int[]> tunnels = new ArrayList<int[]>();
+		switch (type)
+		{
+		case "tunnel":
+			maze = new TunnelMaze();
+			tunnels.add(new int[] { 0, cols - 1, rows - 1, 0 });
+			tunnels.add(new int[] { rows / 2, 1, 1, cols / 2 });
+			break;
+		case "hex":
+			maze = new HexMaze();
+			break;
+		default:
+			maze = new NormalMaze();
+		}
+		maze.isVisu = false;
+		maze.initMaze(rows, cols, 0, 0, rows - 1, cols - 1, tunnels);
+		new KruskalGenerator(seed).generateMaze(maze);
+		return maze;
+	} // end of perfectMaze()
+
+
+	/**
+	 * Open walls between neighbours picked from the seed, each one closing a loop.
+	 */
+	static Maze withLoops(Maze maze, int loops, long seed)
+	{
+		Random rand = new Random(seed);
+		while (loops > 0)
+		{
+			Cell cell = maze.cells[rand.nextInt(maze.cells.length)];
+			int dir = rand.nextInt(Maze.NUM_DIR);
+			if (cell.neigh[dir] != null && cell.wall[dir].present)
+			{
+				cell.wall[dir].present = false;
+				loops--;
+			}
+		}
+		return maze;
+	} // end of withLoops()
+
+
+	/**
+	 * Close an open wall picked from the seed, cutting a perfect maze in two.
+	 */
+	static Maze cut(Maze maze, long seed)
+	{
+		Random rand = new Random(seed);
+		while (true)
+		{
+			Cell cell = maze.cells[rand.nextInt(maze.cells.length)];
+			int dir = rand.nextInt(Maze.NUM_DIR);
+			if (cell.neigh[dir] != null && !cell.wall[dir].present)
+			{
+				cell.wall[dir].present = true;
+				return maze;
+			}
+		}
+	} // end of cut()
+
+
+	/**
+	 * Run MazeTester in a child JVM on the class path of this one, the batch and daemon modes
+	 * being package-private in the default package.
+	 * @param input Standard input of the child.
+	 * @param output File receiving its standard output and error.
+	 * @param args Arguments of MazeTester.
+	 * @return Exit status of the child.
+	 */
+	static int mazeTester(String input, File output, String... args) throws IOException
+	{
+		Process child = startMazeTester(output, args);
+		try (OutputStream in = child.getOutputStream())
+		{
+			in.write(input.getBytes(StandardCharsets.UTF_8));
+		}
+		try
+		{
+			return child.waitFor();
+		}
+		catch (InterruptedException e)
+		{
+			child.destroy();
+			throw new IOException("Interrupted while MazeTester runs.", e);
+		}
+	} // end of mazeTester()
+
+
+	/**
+	 * Start MazeTester in a child JVM, as mazeTester() does, without waiting for it.
+	 * @param output File receiving its standard output and error.
+	 * @param args Arguments of MazeTester.
+	 * @return The child, its standard input left open.
+	 */
+	static Process startMazeTester(File output, String... args) throws IOException
+	{
+		List<String> command = new ArrayList<String>();
+		command.add(new File(System.getProperty("java.home"), "bin/java").getPath());
+		command.add("-Djava.awt.headless=true");
+		command.add("-cp");
+		command.add(System.getProperty("java.class.path"));
+		command.add("MazeTester");
+		command.addAll(Arrays.asList(args));
+		return new ProcessBuilder(command).redirectErrorStream(true).redirectOutput(output).start();
+	} // end of startMazeTester()
+
+
+	/**
+	 * @return True if both mazes have the same type, size, entrance, exit, walls and tunnels.
+	 */
+	static boolean sameMaze(Maze a, Maze b)
+	{
+		if (a.type != b.type || a.sizeR != b.sizeR || a.sizeC != b.sizeC || a.cells.length != b.cells.length
+				|| a.index(a.entrance) != b.index(b.entrance) || a.index(a.exit) != b.index(b.exit))
+			return false;
+		for (int idx = 0; idx < a.cells.length; idx++)
+		{
+			Cell ca = a.cells[idx];
+			Cell cb = b.cells[idx];
+			if (ca.r != cb.r || ca.c != cb.c)
+				return false;
+			for (int dir = 0; dir < Maze.NUM_DIR; dir++)
+				if (ca.neigh[dir] != null && ca.wall[dir].present != cb.wall[dir].present)
+					return false;
+			if ((ca.tunnelTo == null) != (cb.tunnelTo == null)
+					|| ca.tunnelTo != null && a.index(ca.tunnelTo) != b.index(cb.tunnelTo))
+				return false;
+		}
+		return true;
+	} // end of sameMaze()
+
+
+	/**
+	 * @return Steps on the shortest route from the entrance to the exit, -1 if there is none.
+	 */
+	static int distance(Maze maze)
+	{
+		int dist[] = bfs(maze);
+		return dist[maze.index(maze.exit)];
+	} // end of distance()
+
+
+	/**
+	 * @return True if every cell is reached from the entrance through exactly cells - 1 passages.
+	 */
+	static boolean isPerfect(Maze maze)
+	{
+		int reached = 0;
+		for (int d : bfs(maze))
+			if (d >= 0)
+				reached++;
+
+		// every passage and tunnel is seen from both ends
+		long ends = 0;
+		for (Cell cell : maze.cells)
+		{
+			for (int dir = 0; dir < Maze.NUM_DIR; dir++)
+				if (cell.neigh[dir] != null && !cell.wall[dir].present)
+					ends++;
+			if (cell.tunnelTo != null)
+				ends++;
+		}
+		return reached == maze.cells.length && ends == 2L * (maze.cells.length - 1);
+	} // end of isPerfect()
+
+
+	// steps from the entrance to every cell, by maze.index(), -1 for cells not reached
+	private static int[] bfs(Maze maze)
+	{
+		int dist[] = new int[maze.numIndices()];
+		Arrays.fill(dist, -1);
+		Cell queue[] = new Cell[maze.cells.length];
+		int head = 0, tail = 0;
+		queue[tail++] = maze.entrance;
+		dist[maze.index(maze.entrance)] = 0;
+		while (head < tail)
+		{
+			Cell cell = queue[head++];
+			int d = dist[maze.index(cell)];
+			for (int dir = 0; dir <= Maze.NUM_DIR; dir++)
+			{
+				Cell next;
+				if (dir == Maze.NUM_DIR)
+					next = cell.tunnelTo;
+				else
+					next = cell.neigh[dir] != null && !cell.wall[dir].present ? cell.neigh[dir] : null;
+				if (next != null && dist[maze.index(next)] < 0)
+				{
+					dist[maze.index(next)] = d + 1;
+					queue[tail++] = next;
+				}
+			}
+		}
+		return dist;
+	} // end of bfs()
+
+} // end of class Checks
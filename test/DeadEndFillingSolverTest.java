@@ -0,0 +1,65 @@
+package test;
+
+import java.util.ArrayList;
+import java.util.concurrent.ForkJoinPool;
+
+import maze.FootprintMode;
+import maze.Maze;
+import maze.NormalMaze;
+import mazeSolver.DeadEndFillingSolver;
+
+/**
+ * Regression checks of DeadEndFillingSolver, see Checks: the route is valid and as short as
+ * the reference BFS finds on perfect mazes and on mazes with loops, which survive the filling,
+ * on pools of one and four threads.
+ */
+public class DeadEndFillingSolverTest
+{
+	public static void main(String[] args)
+	{
+		run();
+		Checks.exit();
+	} // end of main()
+
+
+	static void run()
+	{
+		// 2x2 maze with every inner wall open, the entrance and exit on the one cycle
+		Maze cycle = new NormalMaze();
+		cycle.isVisu = false;
+		cycle.initMaze(2, 2, 0, 0, 1, 1, new ArrayList<int[]>());
+		cycle.cellAt(0, 0).wall[Maze.EAST].present = false;
+		cycle.cellAt(0, 0).wall[Maze.NORTH].present = false;
+		cycle.cellAt(1, 1).wall[Maze.WEST].present = false;
+		cycle.cellAt(1, 1).wall[Maze.SOUTH].present = false;
+		solve("cycle", cycle, new DeadEndFillingSolver());
+
+		ForkJoinPool pool = new ForkJoinPool(4);
+		for (String type : Checks.TYPES)
+		{
+			for (int loops : new int[] { 0, 1, 40 })
+			{
+				for (long seed = 1; seed <= 3; seed++)
+				{
+					Maze maze = Checks.withLoops(Checks.perfectMaze(type, 30, 40, seed), loops, seed);
+					String name = type + " loops=" + loops + " seed " + seed;
+					solve(name, maze, new DeadEndFillingSolver());
+					solve(name + " on 4 threads", maze, new DeadEndFillingSolver(pool));
+				}
+			}
+		}
+		pool.shutdown();
+	} // end of run()
+
+
+	private static void solve(String name, Maze maze, DeadEndFillingSolver solver)
+	{
+		maze.setFootprintMode(FootprintMode.NONE);
+		solver.solveMaze(maze);
+		name = "DeadEndFillingSolver " + name;
+		Checks.check(name + " solves", solver.isSolved());
+		Checks.check(name + " gives a shortest valid route", solver.solutionPath().problem(maze) == null
+				&& solver.solutionPath().numSteps == Checks.distance(maze));
+	} // end of solve()
+
+} // end of class DeadEndFillingSolverTest
@@ -0,0 +1,77 @@
+package test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+
+import maze.FootprintMode;
+import maze.Maze;
+import maze.MazeFile;
+import maze.NormalMaze;
+import mazeSolver.ExternalMemoryBFSSolver;
+
+/**
+ * Regression checks of ExternalMemoryBFSSolver, see Checks: the route is valid and as short as
+ * the reference BFS finds, with a buffer holding whole levels and with one of 16 cells that
+ * spills every level into runs, on mazes in memory and on maze files, and when the entrance is
+ * the exit. No spill file is left behind.
+ */
+public class ExternalMemoryBFSSolverTest
+{
+	public static void main(String[] args) throws IOException
+	{
+		run();
+		Checks.exit();
+	} // end of main()
+
+
+	static void run() throws IOException
+	{
+		File workDir = Files.createTempDirectory("extbfs").toFile();
+		for (String type : Checks.TYPES)
+		{
+			for (int loops : new int[] { 0, 40 })
+			{
+				Maze maze = Checks.withLoops(Checks.perfectMaze(type, 30, 40, 5), loops, 5);
+				int distance = Checks.distance(maze);
+				for (int bufferCells : new int[] { 1 << 22, 16 })
+				{
+					String name = "ExternalMemoryBFSSolver " + type + " loops=" + loops + " buffer=" + bufferCells;
+					ExternalMemoryBFSSolver solver = new ExternalMemoryBFSSolver(workDir, bufferCells);
+					maze.setFootprintMode(FootprintMode.NONE);
+					solver.solveMaze(maze);
+					Checks.check(name + " solves", solver.isSolved());
+					Checks.check(name + " gives a shortest valid route", solver.solutionPath().problem(maze) == null
+							&& solver.solutionPath().numSteps == distance);
+
+					// the same maze read from its file, the route as source indices
+					File file = new File(workDir, "maze");
+					MazeFile.write(maze, file, 5);
+					try (MazeFile source = new MazeFile(file))
+					{
+						solver = new ExternalMemoryBFSSolver(workDir, bufferCells);
+						Checks.check(name + " solves the maze file", solver.solve(source));
+						Checks.check(name + " gives as long a route on the maze file", solver.path().length == distance + 1);
+					}
+					file.delete();
+				}
+			}
+		}
+
+		// all-wall maze, nothing to search
+		Maze maze = new NormalMaze();
+		maze.isVisu = false;
+		maze.initMaze(5, 5, 2, 0, 2, 0, new ArrayList<int[]>());
+		ExternalMemoryBFSSolver solver = new ExternalMemoryBFSSolver(workDir, 16);
+		maze.setFootprintMode(FootprintMode.NONE);
+		solver.solveMaze(maze);
+		Checks.check("ExternalMemoryBFSSolver solves a maze whose entrance is the exit",
+				solver.isSolved() && solver.solutionPath().numSteps == 0);
+
+		String left[] = workDir.list();
+		Checks.check("ExternalMemoryBFSSolver leaves no spill file", left != null && left.length == 0);
+		workDir.delete();
+	} // end of run()
+
+} // end of class ExternalMemoryBFSSolverTest
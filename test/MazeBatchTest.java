@@ -0,0 +1,74 @@
+package test;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.file.Files;
+import java.util.List;
+
+/**
+ * Regression checks of the batch mode of MazeTester, see Checks: results come in the order of
+ * the job file, a job that cannot run fails the batch without stopping the others.
+ */
+public class MazeBatchTest
+{
+	public static void main(String[] args) throws IOException
+	{
+		run();
+		Checks.exit();
+	} // end of main()
+
+
+	static void run() throws IOException
+	{
+		File jobs = File.createTempFile("maze", ".jobs");
+		File output = File.createTempFile("maze", ".out");
+		try (PrintWriter out = new PrintWriter(jobs))
+		{
+			out.println("# good jobs, a blank line and this comment being skipped");
+			out.println("normal kruskal biDir 10 12 0 0 9 11 1");
+			out.println();
+			out.println("tunnel recurBack dirOptBFS 10 12 0 0 9 11 2 0 11 9 0");
+			out.println("hex kruskal parBFS 10 12 0 0 9 11 3");
+			out.println("normal kruskal deadEnd 10 12 0 0 9 11 4");
+		}
+		int status = Checks.mazeTester("", output, "-batch", jobs.getPath(), "2");
+		List<String> lines = Files.readAllLines(output.toPath());
+		Checks.check("MazeTester -batch succeeds on good jobs", status == 0);
+		Checks.check("MazeTester -batch gives a row per job in file order", lines.size() == 6
+				&& lines.get(1).startsWith("2 ") && lines.get(2).startsWith("4 ") && lines.get(3).startsWith("5 ")
+				&& lines.get(4).startsWith("6 "));
+		Checks.check("MazeTester -batch finds every solution valid", countOk(lines) == 4
+				&& lines.get(5).startsWith("4 jobs, 0 failed"));
+
+		try (PrintWriter out = new PrintWriter(jobs))
+		{
+			out.println("normal kruskal biDir 10 12 0 0 9 11 1");
+			// (0, 11) on both tunnels
+			out.println("tunnel kruskal deadEnd 10 12 0 0 9 11 4 0 11 9 0 0 11 5 5");
+			out.println("hex kruskal parBFS 10 12 0 0 9 11 3");
+		}
+		status = Checks.mazeTester("", output, "-batch", jobs.getPath(), "2");
+		lines = Files.readAllLines(output.toPath());
+		Checks.check("MazeTester -batch fails on a job with conflicting tunnels", status == 1);
+		Checks.check("MazeTester -batch reports the conflict on its line", lines.size() == 5
+				&& lines.get(2).startsWith("2 ")
+				&& lines.get(2).endsWith("Line 2: Cell (0, 11) is already the end of a tunnel."));
+		Checks.check("MazeTester -batch runs the other jobs", countOk(lines) == 2
+				&& lines.get(4).startsWith("3 jobs, 1 failed"));
+		jobs.delete();
+		output.delete();
+	} // end of run()
+
+
+	// number of result rows whose solution is valid
+	private static int countOk(List<String> lines)
+	{
+		int ok = 0;
+		for (String line : lines)
+			if (line.matches(".* true +true +true .*  ok"))
+				ok++;
+		return ok;
+	} // end of countOk()
+
+} // end of class MazeBatchTest
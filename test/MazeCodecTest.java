@@ -0,0 +1,109 @@
+package test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+
+import maze.Maze;
+import maze.MazeCodec;
+import maze.MazeFile;
+
+/**
+ * Regression checks of MazeCodec, see Checks: perfect mazes decode to the maze encoded, from a
+ * Maze or a MazeFile, and imperfect ones are refused before anything is written.
+ */
+public class MazeCodecTest
+{
+	public static void main(String[] args) throws IOException
+	{
+		run();
+		Checks.exit();
+	} // end of main()
+
+
+	static void run() throws IOException
+	{
+		File file = File.createTempFile("maze", ".maze");
+		for (String type : Checks.TYPES)
+		{
+			for (long seed = 1; seed <= 3; seed++)
+			{
+				Maze maze = Checks.perfectMaze(type, 30, 40, seed);
+				String name = "MazeCodec " + type + " seed=" + seed;
+				ByteArrayOutputStream out = new ByteArrayOutputStream();
+				MazeCodec.encode(maze, out);
+				byte coded[] = out.toByteArray();
+				Checks.check(name + " decodes to the maze encoded", Checks.sameMaze(maze, decode(coded)));
+
+				MazeFile.write(maze, file, seed);
+				out = new ByteArrayOutputStream();
+				try (MazeFile source = new MazeFile(file))
+				{
+					MazeCodec.encode(source, out);
+				}
+				Checks.check(name + " codes a MazeFile as its Maze", Arrays.equals(coded, out.toByteArray()));
+
+				Checks.check(name + " refuses a maze with loops", refuses(Checks.withLoops(maze, 3, seed), file));
+				Checks.check(name + " refuses a maze with a closed wall", refuses(Checks.cut(
+						Checks.perfectMaze(type, 30, 40, seed), seed), file));
+			}
+		}
+
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		MazeCodec.encode(Checks.perfectMaze("normal", 30, 40, 1), out);
+		byte coded[] = out.toByteArray();
+		Checks.check("MazeCodec rejects a truncated code", decode(Arrays.copyOf(coded, coded.length / 2)) == null);
+		coded[0] ^= 1;
+		Checks.check("MazeCodec rejects a stream that is not a coded maze", decode(coded) == null);
+		file.delete();
+	} // end of run()
+
+
+	// both encode() overloads throw IllegalArgumentException without writing anything
+	private static boolean refuses(Maze maze, File file) throws IOException
+	{
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		boolean refused = false;
+		try
+		{
+			MazeCodec.encode(maze, out);
+		}
+		catch (IllegalArgumentException e)
+		{
+			refused = true;
+		}
+		if (!refused || out.size() != 0)
+			return false;
+
+		MazeFile.write(maze, file);
+		refused = false;
+		try (MazeFile source = new MazeFile(file))
+		{
+			MazeCodec.encode(source, out);
+		}
+		catch (IllegalArgumentException e)
+		{
+			refused = true;
+		}
+		return refused && out.size() == 0;
+	} // end of refuses()
+
+
+	// @return The decoded maze, null if decode() throws IOException.
+	private static Maze decode(byte coded[])
+	{
+		try
+		{
+			Maze maze = MazeCodec.decode(new ByteArrayInputStream(coded));
+			maze.isVisu = false;
+			return maze;
+		}
+		catch (IOException e)
+		{
+			return null;
+		}
+	} // end of decode()
+
+} // end of class MazeCodecTest
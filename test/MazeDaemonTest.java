@@ -0,0 +1,122 @@
+package test;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.net.StandardProtocolFamily;
+import java.net.UnixDomainSocketAddress;
+import java.nio.channels.Channels;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Regression checks of the daemon mode of MazeTester, see Checks: on stdin and on a socket,
+ * each job line gets its result line, a bad job an error line, and the daemon keeps going
+ * until asked to quit or shut down.
+ */
+public class MazeDaemonTest
+{
+	final static String GOOD_JOB = "tunnel kruskal dirOptBFS 10 12 0 0 9 11 2 0 11 9 0";
+	final static String BAD_JOB = "normal kruskal";
+
+
+	public static void main(String[] args) throws IOException
+	{
+		run();
+		Checks.exit();
+	} // end of main()
+
+
+	static void run() throws IOException
+	{
+		File output = File.createTempFile("maze", ".out");
+		int status = Checks.mazeTester(GOOD_JOB + "\n\n# comment\n" + BAD_JOB + "\nquit\n" + GOOD_JOB + "\n", output,
+				"-daemon");
+		List<String> lines = Files.readAllLines(output.toPath());
+		Checks.check("MazeTester -daemon on stdin stops on quit", status == 0 && lines.size() == 2);
+		Checks.check("MazeTester -daemon on stdin answers a job", lines.size() > 0 && isValid(lines.get(0), "1"));
+		Checks.check("MazeTester -daemon on stdin answers a bad job with an error", lines.size() > 1
+				&& lines.get(1).equals("id=2 status=error message=Line_4:_Missing_solver_name."));
+
+		File socket = new File(output.getPath() + ".sock");
+		Process daemon = Checks.startMazeTester(output, "-daemon", socket.getPath(), "2");
+		try
+		{
+			boolean listening = waitForSocket(socket);
+			Checks.check("MazeTester -daemon listens on its socket", listening);
+			if (listening)
+			{
+				// a second connection numbers its jobs from 1 again
+				for (int connection = 0; connection < 2; connection++)
+				{
+					String replies[] = send(socket, GOOD_JOB, BAD_JOB, GOOD_JOB);
+					Checks.check("MazeTester -daemon on a socket answers jobs, connection " + connection,
+							isValid(replies[0], "1") && replies[1].startsWith("id=2 status=error ")
+									&& isValid(replies[2], "3"));
+				}
+				send(socket, "shutdown");
+				Checks.check("MazeTester -daemon shuts down", daemon.waitFor(30, TimeUnit.SECONDS)
+						&& daemon.exitValue() == 0 && !socket.exists());
+			}
+		}
+		catch (InterruptedException e)
+		{
+			Checks.check("MazeTester -daemon shuts down", false);
+		}
+		finally
+		{
+			daemon.destroy();
+			output.delete();
+			socket.delete();
+		}
+	} // end of run()
+
+
+	private static boolean isValid(String reply, String id)
+	{
+		return reply != null && reply.startsWith("id=" + id + " status=ok perfect=true solved=true valid=true ");
+	} // end of isValid()
+
+
+	private static boolean waitForSocket(File socket) throws InterruptedException
+	{
+		for (int wait = 0; wait < 300 && !socket.exists(); wait++)
+			Thread.sleep(100);
+		return socket.exists();
+	} // end of waitForSocket()
+
+
+	/*
+	 * Send lines on a new connection to the daemon, reading a reply to each but quit and
+	 * shutdown, then end the connection.
+	 * @return Replies, null for shutdown.
+	 */
+	private static String[] send(File socket, String... lines) throws IOException
+	{
+		String replies[] = new String[lines.length];
+		try (SocketChannel channel = SocketChannel.open(StandardProtocolFamily.UNIX))
+		{
+			channel.connect(UnixDomainSocketAddress.of(socket.toPath()));
+			BufferedReader in = new BufferedReader(Channels.newReader(channel, StandardCharsets.UTF_8));
+			PrintWriter out = new PrintWriter(Channels.newWriter(channel, StandardCharsets.UTF_8));
+			for (int i = 0; i < lines.length; i++)
+			{
+				out.println(lines[i]);
+				out.flush();
+				if (!lines[i].equals("shutdown"))
+					replies[i] = in.readLine();
+			}
+			if (!lines[lines.length - 1].equals("shutdown"))
+			{
+				out.println("quit");
+				out.flush();
+			}
+		}
+		return replies;
+	} // end of send()
+
+} // end of class MazeDaemonTest
@@ -0,0 +1,116 @@
+package test;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+
+import maze.Cell;
+import maze.Maze;
+import maze.MazeFile;
+
+/**
+ * Regression checks of MazeFile, see Checks: a maze written and opened again reads the same
+ * through MazeSource and toMaze(), and damaged files are rejected.
+ */
+public class MazeFileTest
+{
+	public static void main(String[] args) throws IOException
+	{
+		run();
+		Checks.exit();
+	} // end of main()
+
+
+	static void run() throws IOException
+	{
+		File file = File.createTempFile("maze", ".maze");
+		for (String type : Checks.TYPES)
+		{
+			for (int loops : new int[] { 0, 40 })
+			{
+				Maze maze = Checks.withLoops(Checks.perfectMaze(type, 30, 40, 9), loops, 9);
+				String name = "MazeFile " + type + " loops=" + loops;
+				MazeFile.write(maze, file, 9);
+				try (MazeFile source = new MazeFile(file))
+				{
+					Checks.check(name + " keeps the header", source.type() == maze.type && source.sizeR() == maze.sizeR
+							&& source.sizeC() == maze.sizeC && source.width() == maze.width() && source.seed() == 9
+							&& source.entranceR() == maze.entrance.r && source.entranceC() == maze.entrance.c
+							&& source.exitR() == maze.exit.r && source.exitC() == maze.exit.c);
+					Checks.check(name + " matches its checksum", source.verify());
+					Checks.check(name + " reads the same passages and tunnels", sameSource(maze, source));
+					Checks.check(name + " loads the same maze", Checks.sameMaze(maze, source.toMaze()));
+				}
+			}
+		}
+
+		Maze maze = Checks.perfectMaze("tunnel", 30, 40, 9);
+		MazeFile.write(maze, file, 9);
+		long length = file.length();
+		try (RandomAccessFile raf = new RandomAccessFile(file, "rw"))
+		{
+			// flip a bit of the last byte of the wall bitmap
+			raf.seek(length - 1);
+			int b = raf.read();
+			raf.seek(length - 1);
+			raf.write(b ^ 1);
+		}
+		try (MazeFile source = new MazeFile(file))
+		{
+			Checks.check("MazeFile with a flipped wall bit fails its checksum", !source.verify());
+		}
+
+		try (RandomAccessFile raf = new RandomAccessFile(file, "rw"))
+		{
+			raf.setLength(length - 1);
+		}
+		Checks.check("MazeFile rejects a truncated file", !opens(file));
+
+		try (RandomAccessFile raf = new RandomAccessFile(file, "rw"))
+		{
+			raf.seek(0);
+			raf.writeInt(0);
+		}
+		Checks.check("MazeFile rejects a file that is not a maze file", !opens(file));
+		file.delete();
+	} // end of run()
+
+
+	// isIn(), isOpen() and tunnelTo() of the file agree with the maze on every cell
+	private static boolean sameSource(Maze maze, MazeFile source)
+	{
+		for (int r = 0; r < maze.sizeR; r++)
+		{
+			for (int c = 0; c < maze.width(); c++)
+			{
+				Cell cell = maze.cellAt(r, c);
+				if (source.isIn(r, c) != (cell != null))
+					return false;
+				if (cell == null)
+					continue;
+				for (int dir = 0; dir < Maze.NUM_DIR; dir++)
+					if (cell.neigh[dir] != null && source.isOpen(r, c, dir) == cell.wall[dir].present)
+						return false;
+				long other = cell.tunnelTo == null ? -1 : (long) cell.tunnelTo.r * maze.width() + cell.tunnelTo.c;
+				if (source.tunnelTo(r, c) != other)
+					return false;
+			}
+		}
+		return true;
+	} // end of sameSource()
+
+
+	private static boolean opens(File file)
+	{
+		try
+		{
+			new MazeFile(file).close();
+			return true;
+		}
+		catch (IOException e)
+		{
+			return false;
+		}
+	} // end of opens()
+
+} // end of class MazeFileTest
@@ -0,0 +1,119 @@
+package test;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.Arrays;
+
+import maze.MazeSpec;
+
+/**
+ * Regression checks of MazeSpec, see Checks: job lines and input files are parsed into their
+ * fields and tunnel array, and bad tunnels or fields are rejected with their line.
+ */
+public class MazeSpecTest
+{
+	public static void main(String[] args) throws IOException
+	{
+		run();
+		Checks.exit();
+	} // end of main()
+
+
+	static void run() throws IOException
+	{
+		MazeSpec spec = MazeSpec.parseJob(" tunnel\tkruskal biDir 10 12 0 0 9 11 -7 0 11 9 0  5 5 6 6 ", 1);
+		Checks.check("MazeSpec parses the fields of a job", spec.type.equals("tunnel")
+				&& spec.generatorName.equals("kruskal") && spec.solverName.equals("biDir") && spec.rowNum == 10
+				&& spec.colNum == 12 && spec.entR == 0 && spec.entC == 0 && spec.exitR == 9 && spec.exitC == 11
+				&& spec.seed == -7);
+		Checks.check("MazeSpec parses the tunnels of a job", spec.numTunnels == 2 && Arrays.equals(
+				Arrays.copyOf(spec.tunnels, 8), new int[] { 0, 11, 9, 0, 5, 5, 6, 6 }));
+
+		Checks.check("MazeSpec rejects a cell on two tunnels",
+				rejects("tunnel kruskal biDir 10 12 0 0 9 11 1 0 11 9 0 0 11 5 5", 3,
+						"Line 3: Cell (0, 11) is already the end of a tunnel."));
+		Checks.check("MazeSpec rejects both ends of a tunnel on one cell",
+				rejects("tunnel kruskal biDir 10 12 0 0 9 11 1 4 4 4 4", 1,
+						"Line 1: Cell (4, 4) is already the end of a tunnel."));
+		Checks.check("MazeSpec rejects a tunnel end outside the maze",
+				rejects("tunnel kruskal biDir 10 12 0 0 9 11 1 0 12 9 0", 1,
+						"Line 1: Tunnel end (0, 12) is outside the maze."));
+		// hex row r spans columns (r + 1) / 2 to cols - 1 + (r + 1) / 2 of the map
+		Checks.check("MazeSpec takes tunnel ends in the shifted hex rows",
+				error("hex kruskal biDir 10 12 0 0 9 11 1 9 5 9 16", 1) == null);
+		Checks.check("MazeSpec rejects a tunnel end left of a hex row",
+				rejects("hex kruskal biDir 10 12 0 0 9 11 1 9 4 0 0", 1,
+						"Line 1: Tunnel end (9, 4) is outside the maze."));
+		Checks.check("MazeSpec rejects a tunnel end right of a hex row",
+				rejects("hex kruskal biDir 10 12 0 0 9 11 1 0 0 9 17", 1,
+						"Line 1: Tunnel end (9, 17) is outside the maze."));
+		Checks.check("MazeSpec rejects a missing field",
+				rejects("normal kruskal", 2, "Line 2: Missing solver name."));
+		Checks.check("MazeSpec rejects a missing seed",
+				rejects("normal kruskal biDir 10 12 0 0 9 11", 1, "Line 1: Missing seed."));
+		Checks.check("MazeSpec rejects an incomplete tunnel",
+				rejects("tunnel kruskal biDir 10 12 0 0 9 11 1 0 11 9", 1, "Line 1: Missing tunnel end."));
+		Checks.check("MazeSpec rejects a field that is not a number",
+				rejects("normal kruskal biDir 10 1x 0 0 9 11 1", 1, "Line 1: The column number is not a number."));
+		Checks.check("MazeSpec rejects an empty maze",
+				rejects("normal kruskal biDir 0 12 0 0 9 11 1", 1,
+						"Line 1: Row or column number of maze must be at least 1."));
+
+		File file = File.createTempFile("maze", ".txt");
+		try (PrintWriter out = new PrintWriter(file))
+		{
+			out.println("tunnel");
+			out.println("recurBack recurBack");
+			out.println("10 12 0 0 9 11");
+			out.println("0 11 9 0");
+			out.println("5 5 6 6");
+		}
+		spec = MazeSpec.read(file);
+		Checks.check("MazeSpec reads an input file over several lines", spec.type.equals("tunnel")
+				&& spec.solverName.equals("recurBack") && spec.exitC == 11 && spec.seed == 0 && spec.numTunnels == 2
+				&& spec.tunnels[7] == 6);
+
+		try (PrintWriter out = new PrintWriter(file))
+		{
+			out.println("tunnel recurBack recurBack 10 12 0 0 9 11");
+			out.println("0 11 9 0");
+			out.println("5 5 0 11");
+		}
+		String message = null;
+		try
+		{
+			MazeSpec.read(file);
+		}
+		catch (IOException e)
+		{
+			message = e.getMessage();
+		}
+		Checks.check("MazeSpec gives the line of a bad tunnel in an input file",
+				"Line 3: Cell (0, 11) is already the end of a tunnel.".equals(message));
+		file.delete();
+	} // end of run()
+
+
+	// @return True if parseJob() throws an IOException with this message.
+	private static boolean rejects(String job, int lineNum, String message)
+	{
+		return message.equals(error(job, lineNum));
+	} // end of rejects()
+
+
+	// @return Message of the IOException of parseJob(), null if the job is valid.
+	private static String error(String job, int lineNum)
+	{
+		try
+		{
+			MazeSpec.parseJob(job, lineNum);
+			return null;
+		}
+		catch (IOException e)
+		{
+			return e.getMessage();
+		}
+	} // end of error()
+
+} // end of class MazeSpecTest
@@ -0,0 +1,62 @@
+package test;
+
+import java.util.concurrent.ForkJoinPool;
+
+import maze.FootprintMode;
+import maze.Maze;
+import mazeSolver.ParallelBFSSolver;
+
+/**
+ * Regression checks of ParallelBFSSolver, see Checks: on both layouts and on pools of one and
+ * four threads, the route found is valid and as short as the reference BFS finds, on perfect
+ * mazes and on mazes with loops.
+ */
+public class ParallelBFSSolverTest
+{
+	public static void main(String[] args)
+	{
+		run();
+		Checks.exit();
+	} // end of main()
+
+
+	static void run()
+	{
+		ForkJoinPool pools[] = { new ForkJoinPool(1), new ForkJoinPool(4) };
+		for (String type : Checks.TYPES)
+		{
+			for (int loops : new int[] { 0, 40 })
+			{
+				Maze maze = Checks.withLoops(Checks.perfectMaze(type, 30, 40, 7), loops, 7);
+				int distance = Checks.distance(maze);
+				for (ForkJoinPool pool : pools)
+				{
+					for (boolean useCellGraph : new boolean[] { true, false })
+					{
+						ParallelBFSSolver solver = new ParallelBFSSolver(pool, useCellGraph);
+						maze.setFootprintMode(FootprintMode.NONE);
+						solver.solveMaze(maze);
+						String name = "ParallelBFSSolver " + type + " loops=" + loops + " threads="
+								+ pool.getParallelism() + " cellGraph=" + useCellGraph;
+						Checks.check(name + " solves", solver.isSolved());
+						Checks.check(name + " gives a shortest valid route", solver.solutionPath().problem(maze) == null
+								&& solver.solutionPath().numSteps == distance);
+					}
+				}
+			}
+		}
+
+		// exit cut off from the entrance
+		Maze maze = Checks.perfectMaze("normal", 1, 4, 7);
+		maze.cellAt(0, 1).wall[Maze.EAST].present = true;
+		ParallelBFSSolver solver = new ParallelBFSSolver();
+		maze.setFootprintMode(FootprintMode.NONE);
+		solver.solveMaze(maze);
+		Checks.check("ParallelBFSSolver does not solve a maze with its exit cut off",
+				!solver.isSolved() && solver.solutionPath() == null);
+
+		for (ForkJoinPool pool : pools)
+			pool.shutdown();
+	} // end of run()
+
+} // end of class ParallelBFSSolverTest
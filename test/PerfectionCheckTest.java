@@ -0,0 +1,56 @@
+package test;
+
+import java.util.concurrent.ForkJoinPool;
+
+import maze.Maze;
+import maze.PerfectionCheck;
+
+/**
+ * Regression checks of PerfectionCheck, see Checks: the verdict matches the reference BFS on
+ * perfect mazes, mazes with loops and mazes cut in two, on one band and on mazes tall enough
+ * for two bands.
+ */
+public class PerfectionCheckTest
+{
+	public static void main(String[] args)
+	{
+		run();
+		Checks.exit();
+	} // end of main()
+
+
+	static void run()
+	{
+		ForkJoinPool pools[] = { new ForkJoinPool(1), new ForkJoinPool(4) };
+		for (String type : Checks.TYPES)
+		{
+			// 130 rows give two bands of at least MIN_BAND_ROWS
+			for (int rows : new int[] { 12, 130 })
+			{
+				for (long seed = 1; seed <= 3; seed++)
+				{
+					Maze mazes[] = { Checks.perfectMaze(type, rows, 12, seed),
+							Checks.withLoops(Checks.perfectMaze(type, rows, 12, seed), 1, seed),
+							Checks.cut(Checks.perfectMaze(type, rows, 12, seed), seed) };
+					String kinds[] = { "perfect", "loop", "cut" };
+					for (int i = 0; i < mazes.length; i++)
+					{
+						boolean expected = Checks.isPerfect(mazes[i]);
+						String name = "PerfectionCheck " + type + " " + rows + " rows seed " + seed + " " + kinds[i];
+						Checks.check(name + " is " + (expected ? "perfect" : "not perfect"), i == 0 == expected);
+						for (ForkJoinPool pool : pools)
+						{
+							Checks.check(name + " on " + pool.getParallelism() + " threads agrees with the reference",
+									new PerfectionCheck(mazes[i]).isPerfect(pool) == expected);
+						}
+						Checks.check(name + " Maze.isPerfect() agrees", mazes[i].isPerfect() == expected);
+					}
+				}
+			}
+		}
+
+		for (ForkJoinPool pool : pools)
+			pool.shutdown();
+	} // end of run()
+
+} // end of class PerfectionCheckTest
@@ -0,0 +1,65 @@
+package test;
+
+import java.util.Arrays;
+
+import maze.Maze;
+import maze.SolutionPath;
+import maze.TunnelMaze;
+import mazeSolver.CorridorSolver;
+import mazeSolver.DeadEndFillingSolver;
+import mazeSolver.DirectionOptimizingBFSSolver;
+import mazeSolver.ExternalMemoryBFSSolver;
+import mazeSolver.ParallelBFSSolver;
+import mazeSolver.PathSolver;
+import mazeSolver.RecursiveBacktrackerSolver;
+
+/**
+ * Regression checks of SolutionPath, see Checks. The exit status is 1 if any check fails.
+ */
+public class SolutionPathTest
+{
+	public static void main(String[] args)
+	{
+		run();
+		Checks.exit();
+	} // end of main()
+
+
+	static void run()
+	{
+		walledTunnelBetweenNeighbours();
+	} // end of run()
+
+
+	// 1x3 tunnel maze whose tunnel joins (0,0) and (0,1) while the wall between them stays
+	// up, so a route from (0,0) to (0,1) must be recorded as a TUNNEL step, not as EAST
+	private static void walledTunnelBetweenNeighbours()
+	{
+		Maze maze = walledTunnelMaze();
+		SolutionPath path = SolutionPath.of(maze, new int[] { 0, 1, 2 }, 3);
+		Checks.check("of() steps through the tunnel", path.step(0L) == SolutionPath.TUNNEL);
+		Checks.check("of() gives a valid route", path.problem(maze) == null);
+
+		PathSolver solvers[] = { new RecursiveBacktrackerSolver(), new ParallelBFSSolver(),
+				new DirectionOptimizingBFSSolver(), new CorridorSolver(), new DeadEndFillingSolver(),
+				new ExternalMemoryBFSSolver() };
+		for (PathSolver solver : solvers) {
+			maze = walledTunnelMaze();
+			solver.solveMaze(maze);
+			String name = solver.getClass().getSimpleName();
+			Checks.check(name + " solves", solver.isSolved());
+			Checks.check(name + " gives a valid route", solver.solutionPath().problem(maze) == null);
+		}
+	} // end of walledTunnelBetweenNeighbours()
+
+
+	private static Maze walledTunnelMaze()
+	{
+		TunnelMaze maze = new TunnelMaze();
+		maze.isVisu = false;
+		maze.initMaze(1, 3, 0, 0, 0, 2, Arrays.asList(new int[] { 0, 0, 0, 1 }));
+		maze.cellAt(0, 1).wall[Maze.EAST].present = false;
+		return maze;
+	} // end of walledTunnelMaze()
+
+} // end of class SolutionPathTest
@@ -0,0 +1,87 @@
+package test;
+
+import maze.Cell;
+import maze.Maze;
+import maze.TunnelIndex;
+import maze.TunnelMaze;
+
+/**
+ * Regression checks of TunnelIndex, see Checks: partner() and id() agree with the tunnels
+ * given, and a cell on two tunnels, both ends on one cell or an end outside the maze are
+ * rejected, also through TunnelMaze.
+ */
+public class TunnelIndexTest
+{
+	public static void main(String[] args)
+	{
+		run();
+		Checks.exit();
+	} // end of main()
+
+
+	static void run()
+	{
+		TunnelIndex index = new TunnelIndex(4, 5, new int[] { 0, 0, 3, 4, 1, 2, 2, 1, -1, -1, -1, -1 }, 2);
+		Checks.check("TunnelIndex gives the ends of its tunnels", index.numTunnels == 2 && index.ends.length == 4
+				&& index.ends[0] == 0 && index.ends[1] == 19 && index.ends[2] == 7 && index.ends[3] == 11);
+		Checks.check("TunnelIndex gives the tunnel of a cell", index.id(0) == 0 && index.id(19) == 0
+				&& index.id(7) == 1 && index.id(11) == 1 && index.id(1) == -1);
+		Checks.check("TunnelIndex gives the other end of a tunnel", index.partner(0) == 19 && index.partner(19) == 0
+				&& index.partner(7) == 11 && index.partner(11) == 7 && index.partner(1) == -1);
+		Checks.check("TunnelIndex.NONE has no tunnel", TunnelIndex.NONE.numTunnels == 0
+				&& TunnelIndex.NONE.id(3) == -1 && TunnelIndex.NONE.partner(3) == -1);
+
+		Checks.check("TunnelIndex rejects a cell on two tunnels", "Cell (3, 4) is already the end of tunnel 0."
+				.equals(error(4, 5, new int[] { 0, 0, 3, 4, 3, 4, 2, 1 }, 2)));
+		Checks.check("TunnelIndex rejects both ends of a tunnel on one cell",
+				"Cell (1, 1) is already the end of tunnel 0.".equals(error(4, 5, new int[] { 1, 1, 1, 1 }, 1)));
+		Checks.check("TunnelIndex rejects an end below the maze", "Tunnel end (4, 0) is outside the maze."
+				.equals(error(4, 5, new int[] { 0, 0, 4, 0 }, 1)));
+		Checks.check("TunnelIndex rejects an end left of the maze", "Tunnel end (2, -1) is outside the maze."
+				.equals(error(4, 5, new int[] { 2, -1, 0, 0 }, 1)));
+		Checks.check("TunnelIndex rejects an end right of the maze", "Tunnel end (0, 5) is outside the maze."
+				.equals(error(4, 5, new int[] { 0, 0, 0, 5 }, 1)));
+
+		TunnelMaze conflicting = new TunnelMaze();
+		conflicting.isVisu = false;
+		boolean rejected = false;
+		try
+		{
+			conflicting.initMaze(4, 5, 0, 0, 3, 4, new int[] { 0, 4, 3, 0, 3, 0, 2, 2 }, 2);
+		}
+		catch (IllegalArgumentException e)
+		{
+			rejected = e.getMessage().equals("Cell (3, 0) is already the end of tunnel 0.");
+		}
+		Checks.check("TunnelMaze rejects a cell on two tunnels", rejected);
+
+		for (long seed = 1; seed <= 3; seed++)
+		{
+			Maze maze = Checks.perfectMaze("tunnel", 20, 30, seed);
+			boolean same = true;
+			for (int idx = 0; idx < maze.cells.length; idx++)
+			{
+				Cell cell = maze.cells[idx];
+				int partner = maze.tunnelIndex.partner(idx);
+				same &= cell.tunnelTo == null ? partner == -1 : partner == maze.index(cell.tunnelTo);
+			}
+			Checks.check("TunnelMaze seed=" + seed + " links the cells of its tunnel index", same);
+		}
+	} // end of run()
+
+
+	// @return Message of the IllegalArgumentException of the constructor, null if none is thrown.
+	private static String error(int sizeR, int width, int tunnels[], int numTunnels)
+	{
+		try
+		{
+			new TunnelIndex(sizeR, width, tunnels, numTunnels);
+			return null;
+		}
+		catch (IllegalArgumentException e)
+		{
+			return e.getMessage();
+		}
+	} // end of error()
+
+} // end of class TunnelIndexTest
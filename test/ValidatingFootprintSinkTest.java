@@ -0,0 +1,113 @@
+package test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.util.Random;
+
+import maze.Cell;
+import maze.Maze;
+import maze.ValidatingFootprintSink;
+import mazeSolver.RecursiveBacktrackerSolver;
+
+/**
+ * Regression checks of ValidatingFootprintSink, see Checks: on random footprints it gives the
+ * verdict and output of Maze.validate(), and it accepts the footprints of a solver.
+ */
+public class ValidatingFootprintSinkTest
+{
+	public static void main(String[] args)
+	{
+		run();
+		Checks.exit();
+	} // end of main()
+
+
+	static void run()
+	{
+		Random random = new Random(5);
+		for (String type : Checks.TYPES)
+		{
+			int mismatches = 0;
+			int valid = 0;
+			for (int t = 0; t < 300; t++)
+			{
+				int rows = 4 + random.nextInt(6);
+				int cols = 4 + random.nextInt(6);
+				Maze maze = Checks.withLoops(Checks.perfectMaze(type, rows, cols, t), t % 3, t);
+				ValidatingFootprintSink sink = new ValidatingFootprintSink(maze);
+				randomFootprints(maze, sink, random);
+
+				String expected = validateOutput(maze, null);
+				String actual = validateOutput(maze, sink);
+				if (expected.endsWith("true") && sink.problem() == null)
+					valid++;
+				if (!expected.equals(actual) || (sink.problem() == null) != expected.endsWith("true"))
+					mismatches++;
+			}
+			Checks.check("ValidatingFootprintSink " + type + " validates as Maze.validate()", mismatches == 0);
+			Checks.check("ValidatingFootprintSink " + type + " sees valid and invalid footprints", valid > 0
+					&& valid < 300);
+
+			Maze maze = Checks.withLoops(Checks.perfectMaze(type, 30, 40, 7), 20, 7);
+			ValidatingFootprintSink sink = new ValidatingFootprintSink(maze);
+			maze.footprintSink = sink;
+			RecursiveBacktrackerSolver solver = new RecursiveBacktrackerSolver();
+			solver.solveMaze(maze);
+			Checks.check("ValidatingFootprintSink " + type + " accepts the footprints of a solver", solver.isSolved()
+					&& sink.problem() == null && sink.isRecorded(maze.exit) && sink.groups == 1);
+		}
+	} // end of run()
+
+
+	// random walk through open passages and tunnels, from the entrance or any cell, each cell
+	// walked on being sent to Maze.drawFtPrt() and to the sink
+	private static void randomFootprints(Maze maze, ValidatingFootprintSink sink, Random random)
+	{
+		Cell cell = random.nextBoolean() ? maze.entrance : maze.cells[random.nextInt(maze.cells.length)];
+		boolean skipEntrance = random.nextBoolean();
+		int steps = random.nextInt(400);
+		for (int k = 0; k < steps; k++)
+		{
+			if (!(skipEntrance && cell == maze.entrance))
+			{
+				maze.drawFtPrt(cell);
+				sink.footprint(cell);
+			}
+			int dir = random.nextInt(Maze.NUM_DIR + 1);
+			if (dir == Maze.NUM_DIR)
+			{
+				if (cell.tunnelTo != null)
+					cell = cell.tunnelTo;
+			}
+			else if (cell.neigh[dir] != null && !cell.wall[dir].present)
+				cell = cell.neigh[dir];
+		}
+		if (random.nextInt(3) == 0)
+		{
+			// a stray footprint, usually cut off from the others
+			cell = maze.cells[random.nextInt(maze.cells.length)];
+			maze.drawFtPrt(cell);
+			sink.footprint(cell);
+		}
+	} // end of randomFootprints()
+
+
+	// @return What validate() of the maze, or of the sink if not null, prints, then its result.
+	private static String validateOutput(Maze maze, ValidatingFootprintSink sink)
+	{
+		PrintStream stdout = System.out;
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		System.setOut(new PrintStream(out));
+		boolean result;
+		try
+		{
+			result = sink == null ? maze.validate() : sink.validate();
+		}
+		finally
+		{
+			System.setOut(stdout);
+		}
+		return out + String.valueOf(result);
+	} // end of validateOutput()
+
+} // end of class ValidatingFootprintSinkTest